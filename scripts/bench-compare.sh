@@ -0,0 +1,108 @@
+#!/bin/sh
+# Load-test comparison between running instances of the app, e.g. the servlet and reactive stacks,
+# or platform and virtual request threads. Start each variant against the same MongoDB, with the request
+# rate limits off (the benchmark user would otherwise be answered 429 after the first burst):
+#
+#   export TODOS_RATE_LIMIT_ENABLED=false
+#   SERVER_PORT=5050 java -jar target/todo-backend-1.0.0.jar
+#   SERVER_PORT=5051 SPRING_PROFILES_ACTIVE=reactive java -jar target/todo-backend-1.0.0.jar
+#   SERVER_PORT=5052 SPRING_PROFILES_ACTIVE=virtual-threads java -jar target/todo-backend-1.0.0.jar   # Java 21+
+#
+# then pass them as name=url pairs:
+#
+#   scripts/bench-compare.sh servlet=http://localhost:5050 reactive=http://localhost:5051
+#   scripts/bench-compare.sh platform=http://localhost:5050 virtual=http://localhost:5052
+#
+# Needs wrk (https://github.com/wg/wrk) and an open-file limit above the largest connection count.
+# For every variant and connection count it prints throughput and the latency distribution (p50-p99) of
+#   GET  /api/todos          mostly answered from the list cache
+#   GET  /api/todos/changes  reads Mongo on every request, so it shows the cost of a thread per query
+#   POST /api/login          BCrypt-bound
+# A variant still rate limiting is refused before the runs, and a GET run fails on any error status, as its
+# numbers would not be comparable. Login runs may see 503s: that is BCrypt load shedding, part of the result.
+
+set -e
+
+CONNECTIONS=${CONNECTIONS:-"1000 10000"}
+DURATION=${DURATION:-60s}
+THREADS=${THREADS:-8}
+BENCH_USER=${BENCH_USER:-bench-user}
+BENCH_PASSWORD=${BENCH_PASSWORD:-bench-password}
+BENCH_TASKS=${BENCH_TASKS:-50}
+export BENCH_USER BENCH_PASSWORD
+
+if [ $# -eq 0 ]; then
+    set -- servlet=http://localhost:5050 reactive=http://localhost:5051
+fi
+
+ulimit -n 65536 2>/dev/null || echo "warning: could not raise the open-file limit, 10k connections may fail"
+
+token() {
+    curl -s -X POST "$1/api/register" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" > /dev/null
+    curl -s -X POST "$1/api/login" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p'
+}
+
+# Login is limited to a burst of 10 per address by default, so a few more attempts show whether limits are on
+rate_limited() {
+    i=0
+    while [ "$i" -lt 12 ]; do
+        status=$(curl -s -o /dev/null -w '%{http_code}' -X POST "$1/api/login" -H 'Content-Type: application/json' \
+            -d "{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}")
+        if [ "$status" = 429 ]; then
+            return 0
+        fi
+        i=$((i + 1))
+    done
+    return 1
+}
+
+# wrk counts error statuses but still reports their latency as if they were served
+bench() {
+    out=$(wrk -t"$THREADS" -c"$c" -d"$DURATION" --latency --timeout 10s "$@")
+    echo "$out"
+    if echo "$out" | grep -q "Non-2xx or 3xx responses"; then
+        echo "error responses from $name; its numbers are not comparable" >&2
+        exit 1
+    fi
+}
+
+seed() {
+    existing=$(curl -s "$1/api/todos?unpaged=true" -H "Authorization: Bearer $2" | grep -o '"id"' | wc -l)
+    i=$existing
+    while [ "$i" -lt "$BENCH_TASKS" ]; do
+        curl -s -X POST "$1/api/todos" -H 'Content-Type: application/json' -H "Authorization: Bearer $2" \
+            -d "{\"title\":\"bench task $i\"}" > /dev/null
+        i=$((i + 1))
+    done
+}
+
+for variant in "$@"; do
+    name=${variant%%=*}
+    url=${variant#*=}
+
+    jwt=$(token "$url")
+    if [ -z "$jwt" ]; then
+        echo "could not log in to $url" >&2
+        exit 1
+    fi
+    if rate_limited "$url"; then
+        echo "$url is rate limiting; start it with TODOS_RATE_LIMIT_ENABLED=false" >&2
+        exit 1
+    fi
+    seed "$url" "$jwt"
+
+    for c in $CONNECTIONS; do
+        echo "=== $name, $c connections, GET /api/todos ==="
+        bench -H "Authorization: Bearer $jwt" "$url/api/todos"
+
+        echo "=== $name, $c connections, GET /api/todos/changes ==="
+        bench -H "Authorization: Bearer $jwt" "$url/api/todos/changes"
+
+        echo "=== $name, $c connections, POST /api/login ==="
+        wrk -t"$THREADS" -c"$c" -d"$DURATION" --latency --timeout 10s \
+            -s "$(dirname "$0")/wrk-login.lua" "$url/api/login"
+    done
+done
@@ -0,0 +1,63 @@
+#!/bin/sh
+# Local three-member replica set on one host, for trying read routing (todos.read-routing.*):
+#
+#   scripts/replica-set.sh start
+#   SPRING_DATA_MONGODB_URI='mongodb://localhost:27017,localhost:27018,localhost:27019/?replicaSet=rs0' \
+#       TODOS_READ_ROUTING_ENABLED=true java -jar target/todo-backend-1.0.0.jar
+#   scripts/replica-set.sh stop
+#
+# Needs mongod and mongosh on the PATH. Test commands are enabled so a secondary's replication can be paused,
+# which shows routed reads waiting for the caller's write rather than returning stale data:
+#
+#   scripts/replica-set.sh pause 27018     # writes still succeed (w:1); reads routed to 27018 block
+#   scripts/replica-set.sh resume 27018    # 27018 catches up and the blocked reads return
+#
+# Reads without an X-Read-After token or a recent write of their own are not held back.
+
+set -e
+
+DATA_DIR=${DATA_DIR:-/tmp/todo-rs}
+PORTS=${PORTS:-"27017 27018 27019"}
+REPLICA_SET=${REPLICA_SET:-rs0}
+
+start() {
+    members=""
+    i=0
+    for port in $PORTS; do
+        mkdir -p "$DATA_DIR/$port"
+        mongod --replSet "$REPLICA_SET" --port "$port" --bind_ip localhost --dbpath "$DATA_DIR/$port" \
+            --setParameter enableTestCommands=1 --fork --logpath "$DATA_DIR/$port.log" > /dev/null
+        members="$members{_id: $i, host: 'localhost:$port'},"
+        i=$((i + 1))
+    done
+    first=$(echo "$PORTS" | cut -d' ' -f1)
+    mongosh --quiet --port "$first" --eval "
+        try { rs.status() } catch (e) { rs.initiate({_id: '$REPLICA_SET', members: [$members]}) }
+        while (!db.hello().isWritablePrimary) { sleep(500) }
+        print('primary: ' + db.hello().primary)"
+}
+
+stop() {
+    for port in $PORTS; do
+        mongosh --quiet --port "$port" --eval "db.getSiblingDB('admin').shutdownServer({force: true})" \
+            > /dev/null 2>&1 || true
+    done
+}
+
+pause() {
+    mongosh --quiet --port "$1" --eval \
+        "db.adminCommand({configureFailPoint: 'rsSyncApplyStop', mode: 'alwaysOn'})"
+}
+
+resume() {
+    mongosh --quiet --port "$1" --eval \
+        "db.adminCommand({configureFailPoint: 'rsSyncApplyStop', mode: 'off'})"
+}
+
+case "$1" in
+    start) start ;;
+    stop) stop ;;
+    pause) pause "$2" ;;
+    resume) resume "$2" ;;
+    *) echo "usage: $0 start|stop|pause <port>|resume <port>" >&2; exit 1 ;;
+esac
@@ -0,0 +1,4 @@
+-- POST /api/login as the benchmark user (see bench-compare.sh)
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+wrk.body = '{"username":"' .. os.getenv("BENCH_USER") .. '","password":"' .. os.getenv("BENCH_PASSWORD") .. '"}'
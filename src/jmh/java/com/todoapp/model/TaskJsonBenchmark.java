@@ -0,0 +1,90 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.dto.TaskRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response and request bodies of the task API, with the ObjectMapper settings from application.properties
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] taskRequestJson;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        taskRequestJson = ("{\"title\":\"Write benchmarks\",\"description\":\"Auth and serialization hot paths\","
+                + "\"priority\":\"high\",\"tags\":[\"perf\",\"backend\"],\"dueDate\":\"2025-06-01T09:30:00\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @State(Scope.Benchmark)
+    public static class TaskList {
+
+        @Param({"1", "50", "200", "1000"})
+        private int size;
+
+        private ObjectWriter writer;
+        private List<Task> tasks;
+
+        @Setup
+        public void setUp(TaskJsonBenchmark benchmark) {
+            writer = benchmark.objectMapper.writerFor(new TypeReference<List<Task>>() {
+            });
+
+            Instant now = Instant.now();
+            tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Task task = new Task(String.format("65f1c0ffee%014x", i), "bench-user", "Task " + i,
+                        "Description of task " + i, i % 3 == 0, now.minusSeconds(i));
+                task.setTags(List.of("work", "tag-" + (i % 10)));
+                task.setDueDate(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(i));
+                task.setUpdatedAt(now);
+                task.setChangeSeq(i);
+                tasks.add(task);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList(TaskList taskList) throws Exception {
+        return taskList.writer.writeValueAsBytes(taskList.tasks);
+    }
+
+    @Benchmark
+    public TaskRequest deserializeTaskRequest() throws Exception {
+        return objectMapper.readValue(taskRequestJson, TaskRequest.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.todoapp.security;
+
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through the filter: cached token verification plus cached user-state lookup.
+// The chain is a no-op, so only the filter's own work is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest unauthenticatedRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId("65f1c0ffee0000000000beef");
+        user.setUsername("bench-user");
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("bench-user")).thenReturn(Optional.of(user));
+
+        UserStateCache userStateCache = new UserStateCache(userRepository, new SimpleMeterRegistry(),
+                new MockEnvironment());
+        ReflectionTestUtils.setField(userStateCache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(userStateCache, "ttlSeconds", 300L);
+        userStateCache.init();
+
+        JwtUtil jwtUtil = JwtUtilBenchmark.jwtUtil(10_000);
+        filter = new JwtAuthenticationFilter(jwtUtil, userStateCache, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/todos");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user.getId(), user.getUsername(), 0));
+        unauthenticatedRequest = new MockHttpServletRequest("GET", "/api/todos");
+        response = new MockHttpServletResponse();
+    }
+
+    // Clearing the context is part of the measurement; it is a thread-local remove
+    @Benchmark
+    public void authenticatedRequest() throws Exception {
+        try {
+            filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void requestWithoutToken() throws Exception {
+        filter.doFilterInternal(unauthenticatedRequest, response, NO_OP_CHAIN);
+    }
+}
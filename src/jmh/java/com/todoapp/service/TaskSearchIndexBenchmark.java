@@ -0,0 +1,79 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Search against one user's loaded index of 50k tasks drawn from a 5k-word vocabulary. "w1" is a prefix of
+// a fifth of the vocabulary and matches most tasks, the worst case for ranking; the target is under 10 ms.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSearchIndexBenchmark {
+
+    private static final String USER_ID = "bench-user";
+    private static final int VOCABULARY = 5_000;
+
+    @Param({"50000"})
+    private int tasks;
+
+    @Param({"w1", "w12", "w123 w45", "w1234"})
+    private String query;
+
+    private TaskSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new TaskSearchIndex(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxPostings", 10_000_000L);
+        ReflectionTestUtils.setField(index, "ttlMinutes", 60L);
+        index.init();
+
+        Random random = new Random(42);
+        List<Task> all = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setId(new ObjectId().toHexString());
+            task.setUserId(USER_ID);
+            task.setTitle(words(random, 4));
+            task.setDescription(words(random, 12));
+            task.setTags(List.of("w" + random.nextInt(VOCABULARY)));
+            all.add(task);
+        }
+        index.search(USER_ID, "warmup", 1, all::stream);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append('w').append(random.nextInt(VOCABULARY)).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return index.search(USER_ID, query, 20, Stream::empty);
+    }
+}
@@ -0,0 +1,185 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.BulkResult;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskEvent;
+import com.todoapp.dto.TaskListQuery;
+import com.todoapp.dto.TaskPage;
+import com.todoapp.dto.TaskRequest;
+import com.todoapp.dto.TaskStatsResponse;
+import com.todoapp.exception.RateLimitedException;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskFields;
+import com.todoapp.service.ReactiveTaskService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Same routes, status codes and bodies as TaskController, served by the "reactive" profile
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/todos")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    @GetMapping
+    public Mono<ResponseEntity<MappingJacksonValue>> getTaskPage(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) List<String> fields,
+            TaskListQuery query,
+            ServerWebExchange exchange) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        return taskService.getTaskListVersion().flatMap(version -> exchange.checkNotModified(version)
+                ? Mono.empty()
+                : taskService.getTaskPage(limit, after, query, taskFields, version)
+                        .map(page -> ResponseEntity.ok().eTag(page.version()).varyBy(HttpHeaders.ACCEPT)
+                                .body(TaskFieldsView.of(page.value(), taskFields))));
+    }
+
+    @GetMapping(params = "unpaged=true")
+    public Mono<ResponseEntity<MappingJacksonValue>> getAllTasks(
+            @RequestParam(required = false) List<String> fields,
+            ServerWebExchange exchange) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        return taskService.getTaskListVersion().flatMap(version -> exchange.checkNotModified(version)
+                ? Mono.empty()
+                : taskService.getAllTasks(taskFields, version)
+                        .map(tasks -> ResponseEntity.ok().eTag(tasks.version()).varyBy(HttpHeaders.ACCEPT)
+                                .body(TaskFieldsView.of(tasks.value(), taskFields))));
+    }
+
+    @GetMapping("/archive")
+    public Mono<ResponseEntity<TaskPage>> getArchivedTasks(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        return taskService.getArchivedTaskPage(limit, after).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<TaskChanges>> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return taskService.getChanges(since).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TaskEvent>> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskService.streamEvents(lastEventId);
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<TaskStatsResponse>> getStats() {
+        return taskService.getStats().map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/stats/rebuild")
+    public Mono<ResponseEntity<TaskStatsResponse>> rebuildStats() {
+        return taskService.rebuildStats().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Task>>> searchTasks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        return taskService.searchTasks(q, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> exportTasks() {
+        return taskService.exportTasks();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Task>> createTask(@Valid @RequestBody TaskRequest request) {
+        return taskService.createTask(request)
+                .map(task -> ResponseEntity.status(HttpStatus.CREATED).body(task))
+                .doOnError(e -> log.error("Error creating task: ", e));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(
+            @PathVariable String id,
+            @Valid @RequestBody TaskRequest request) {
+        return notFoundOnError(taskService.updateTask(id, request).map(ResponseEntity::ok), id);
+    }
+
+    @PatchMapping("/{id}/toggle")
+    public Mono<ResponseEntity<Task>> toggleTask(@PathVariable String id) {
+        return notFoundOnError(taskService.toggleTask(id).map(ResponseEntity::ok), id);
+    }
+
+    @PatchMapping("/{id}/archive")
+    public Mono<ResponseEntity<Task>> archiveTask(@PathVariable String id) {
+        return notFoundOnError(taskService.archiveTask(id).map(ResponseEntity::ok), id);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, Boolean>>> deleteTask(@PathVariable String id) {
+        return taskService.deleteTask(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok(Map.of("success", true))))
+                .onErrorResume(RuntimeException.class, e -> {
+                    log.error("Error deleting task {}: ", id, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false)));
+                });
+    }
+
+    @PostMapping("/bulk/complete")
+    public Mono<ResponseEntity<Map<String, Object>>> bulkComplete(@RequestBody Map<String, List<String>> request) {
+        return bulkResponse(Mono.defer(() -> taskService.completeTasks(request.get("taskIds"))));
+    }
+
+    @DeleteMapping("/bulk/delete")
+    public Mono<ResponseEntity<Map<String, Object>>> bulkDelete(@RequestBody Map<String, List<String>> request) {
+        return bulkResponse(Mono.defer(() -> taskService.deleteTasks(request.get("taskIds"))));
+    }
+
+    private <T> Mono<ResponseEntity<T>> notFoundOnError(Mono<ResponseEntity<T>> response, String id) {
+        return response.onErrorResume(RuntimeException.class, e -> {
+            log.error("Error modifying task {}: ", id, e);
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        });
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> bulkResponse(Mono<BulkResult> result) {
+        return result.map(bulk -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("successCount", bulk.getSucceededIds().size());
+            response.put("failCount", bulk.getFailedIds().size());
+            response.put("failedIds", bulk.getFailedIds());
+            return ResponseEntity.ok(response);
+        }).onErrorResume(e -> !(e instanceof RateLimitedException), e -> {
+            log.error("Error in bulk operation: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response));
+        });
+    }
+
+    @GetMapping("/health")
+    public Mono<ResponseEntity<Map<String, String>>> health() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("service", "Task Service");
+        return Mono.just(ResponseEntity.ok(response));
+    }
+}
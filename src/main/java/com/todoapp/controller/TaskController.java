@@ -1,20 +1,36 @@
 package com.todoapp.controller;
 
+import com.todoapp.dto.BulkResult;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskListQuery;
+import com.todoapp.dto.TaskPage;
 import com.todoapp.dto.TaskRequest;
+import com.todoapp.dto.TaskStatsResponse;
+import com.todoapp.exception.RateLimitedException;
 import com.todoapp.model.Task;
+import com.todoapp.repository.TaskFields;
+import com.todoapp.service.TaskListCache;
 import com.todoapp.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/todos")
 @RequiredArgsConstructor
 @Slf4j
@@ -23,22 +39,104 @@ public class TaskController {
 
     private final TaskService taskService;
 
+    // The list version doubles as the ETag: a matching If-None-Match is answered with 304
+    // before the list is read or serialized. Filters and sort are bound from TaskListQuery;
+    // fields limits each task to the named fields. Lists are also served as Smile or CBOR.
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
+    public ResponseEntity<MappingJacksonValue> getTaskPage(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) List<String> fields,
+            TaskListQuery query,
+            WebRequest webRequest) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        String version = taskService.getTaskListVersion();
+        if (webRequest.checkNotModified(version)) {
+            return null;
+        }
+        log.debug("GET /api/todos - Fetching page of tasks");
+        TaskListCache.Versioned<TaskPage> page = taskService.getTaskPage(limit, after, query, taskFields, version);
+        return ResponseEntity.ok().eTag(page.version()).varyBy(HttpHeaders.ACCEPT)
+                .body(TaskFieldsView.of(page.value(), taskFields));
+    }
+
+    // Unpaged list kept for old clients
+    @GetMapping(params = "unpaged=true")
+    public ResponseEntity<MappingJacksonValue> getAllTasks(
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
         try {
-            log.info("GET /api/todos - Fetching all tasks");
-            List<Task> tasks = taskService.getAllTasks();
-            return ResponseEntity.ok(tasks);
+            TaskFields taskFields = TaskFields.parse(fields);
+            String version = taskService.getTaskListVersion();
+            if (webRequest.checkNotModified(version)) {
+                return null;
+            }
+            log.debug("GET /api/todos?unpaged=true - Fetching all tasks");
+            TaskListCache.Versioned<List<Task>> tasks = taskService.getAllTasks(taskFields, version);
+            return ResponseEntity.ok().eTag(tasks.version()).varyBy(HttpHeaders.ACCEPT)
+                    .body(TaskFieldsView.of(tasks.value(), taskFields));
         } catch (Exception e) {
             log.error("Error fetching tasks: ", e);
             throw e;
         }
     }
 
+    // Archived tasks, including those the archiver has moved out of the tasks collection; newest first
+    @GetMapping("/archive")
+    public ResponseEntity<TaskPage> getArchivedTasks(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        log.debug("GET /api/todos/archive - Fetching page of archived tasks");
+        return ResponseEntity.ok(taskService.getArchivedTaskPage(limit, after));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(defaultValue = "0") long since) {
+        log.debug("GET /api/todos/changes?since={} - Fetching changes", since);
+        return ResponseEntity.ok(taskService.getChanges(since));
+    }
+
+    // Server-sent events for every change to the user's tasks; browsers resume with Last-Event-ID
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("GET /api/todos/events - Opening event stream");
+        return taskService.streamEvents(lastEventId);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsResponse> getStats() {
+        log.debug("GET /api/todos/stats - Fetching task stats");
+        return ResponseEntity.ok(taskService.getStats());
+    }
+
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<TaskStatsResponse> rebuildStats() {
+        log.debug("POST /api/todos/stats/rebuild - Rebuilding task stats");
+        return ResponseEntity.ok(taskService.rebuildStats());
+    }
+
+    // Prefix match over title, description and tags; best matches first
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /api/todos/search - Searching tasks");
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        log.debug("GET /api/todos/export - Streaming task export");
+        StreamingResponseBody body = taskService::exportTasks;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<Task> createTask(@Valid @RequestBody TaskRequest request) {
         try {
-            log.info("POST /api/todos - Creating task: {}", request.getTitle() != null ? request.getTitle() : request.getText());
+            log.debug("POST /api/todos - Creating task: {}", request.getTitle() != null ? request.getTitle() : request.getText());
             Task task = taskService.createTask(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(task);
         } catch (Exception e) {
@@ -52,7 +150,7 @@ public class TaskController {
             @PathVariable String id,
             @Valid @RequestBody TaskRequest request) {
         try {
-            log.info("PUT /api/todos/{} - Updating task", id);
+            log.debug("PUT /api/todos/{} - Updating task", id);
             Task task = taskService.updateTask(id, request);
             return ResponseEntity.ok(task);
         } catch (RuntimeException e) {
@@ -64,7 +162,7 @@ public class TaskController {
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<Task> toggleTask(@PathVariable String id) {
         try {
-            log.info("PATCH /api/todos/{}/toggle - Toggling task completion", id);
+            log.debug("PATCH /api/todos/{}/toggle - Toggling task completion", id);
             Task task = taskService.toggleTask(id);
             return ResponseEntity.ok(task);
         } catch (RuntimeException e) {
@@ -76,7 +174,7 @@ public class TaskController {
     @PatchMapping("/{id}/archive")
     public ResponseEntity<Task> archiveTask(@PathVariable String id) {
         try {
-            log.info("PATCH /api/todos/{}/archive - Archiving task", id);
+            log.debug("PATCH /api/todos/{}/archive - Archiving task", id);
             Task task = taskService.archiveTask(id);
             return ResponseEntity.ok(task);
         } catch (RuntimeException e) {
@@ -88,7 +186,7 @@ public class TaskController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Boolean>> deleteTask(@PathVariable String id) {
         try {
-            log.info("DELETE /api/todos/{} - Deleting task", id);
+            log.debug("DELETE /api/todos/{} - Deleting task", id);
             taskService.deleteTask(id);
             Map<String, Boolean> response = new HashMap<>();
             response.put("success", true);
@@ -101,32 +199,17 @@ public class TaskController {
         }
     }
 
-    // Bulk operations endpoint (optional, for future use)
+    // Bulk operations: one Mongo write for the whole list, outcome reported per id
     @PostMapping("/bulk/complete")
     public ResponseEntity<Map<String, Object>> bulkComplete(@RequestBody Map<String, List<String>> request) {
         try {
             List<String> taskIds = request.get("taskIds");
-            log.info("POST /api/todos/bulk/complete - Completing {} tasks", taskIds.size());
-
-            int successCount = 0;
-            int failCount = 0;
-
-            for (String taskId : taskIds) {
-                try {
-                    taskService.toggleTask(taskId);
-                    successCount++;
-                } catch (Exception e) {
-                    log.error("Error completing task {}: ", taskId, e);
-                    failCount++;
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("successCount", successCount);
-            response.put("failCount", failCount);
+            log.debug("POST /api/todos/bulk/complete - Completing {} tasks", taskIds.size());
 
-            return ResponseEntity.ok(response);
+            BulkResult result = taskService.completeTasks(taskIds);
+            return ResponseEntity.ok(bulkResponse(result));
+        } catch (RateLimitedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error in bulk complete: ", e);
             Map<String, Object> response = new HashMap<>();
@@ -139,27 +222,12 @@ public class TaskController {
     public ResponseEntity<Map<String, Object>> bulkDelete(@RequestBody Map<String, List<String>> request) {
         try {
             List<String> taskIds = request.get("taskIds");
-            log.info("DELETE /api/todos/bulk/delete - Deleting {} tasks", taskIds.size());
-
-            int successCount = 0;
-            int failCount = 0;
-
-            for (String taskId : taskIds) {
-                try {
-                    taskService.deleteTask(taskId);
-                    successCount++;
-                } catch (Exception e) {
-                    log.error("Error deleting task {}: ", taskId, e);
-                    failCount++;
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("successCount", successCount);
-            response.put("failCount", failCount);
+            log.debug("DELETE /api/todos/bulk/delete - Deleting {} tasks", taskIds.size());
 
-            return ResponseEntity.ok(response);
+            BulkResult result = taskService.deleteTasks(taskIds);
+            return ResponseEntity.ok(bulkResponse(result));
+        } catch (RateLimitedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error in bulk delete: ", e);
             Map<String, Object> response = new HashMap<>();
@@ -168,6 +236,15 @@ public class TaskController {
         }
     }
 
+    private Map<String, Object> bulkResponse(BulkResult result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("successCount", result.getSucceededIds().size());
+        response.put("failCount", result.getFailedIds().size());
+        response.put("failedIds", result.getFailedIds());
+        return response;
+    }
+
     // Health check endpoint
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
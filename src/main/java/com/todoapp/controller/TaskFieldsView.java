@@ -0,0 +1,26 @@
+package com.todoapp.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.todoapp.repository.TaskFields;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+// Wraps a task list response so every Task in it is written with only the requested fields. Works with
+// each Jackson encoding (JSON, Smile, CBOR) on both stacks.
+final class TaskFieldsView {
+
+    // Attached to Task by ResponseFormatConfig
+    static final String FILTER = "taskFields";
+
+    private TaskFieldsView() {
+    }
+
+    static MappingJacksonValue of(Object body, TaskFields fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.all()) {
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names())));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,25 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.BulkRegisterRequest;
+import com.todoapp.dto.BulkRegisterResult;
+import com.todoapp.service.UserProvisioningService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Admin only, see SecurityConfig
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserAdminController {
+
+    private final UserProvisioningService userProvisioningService;
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRegisterResult> registerAll(@Valid @RequestBody BulkRegisterRequest request) {
+        return ResponseEntity.ok(userProvisioningService.registerAll(request.getUsers()));
+    }
+}
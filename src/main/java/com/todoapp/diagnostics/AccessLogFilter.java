@@ -0,0 +1,134 @@
+package com.todoapp.diagnostics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One JSON line per request on the "access" logger: user, method, route pattern, status, latency and the
+// Mongo time spent on the request thread. Successful requests are sampled; 4xx are logged at WARN and 5xx
+// at ERROR, always. The logger writes through an async appender (logback-spring.xml) that drops sampled
+// INFO lines when its buffer is nearly full but never drops WARN or ERROR.
+// Runs ahead of Spring Security so rejected requests are logged too.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "access-log.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    // Set by JwtAuthenticationFilter; the security context is already cleared when the response is logged
+    public static final String USER_ATTRIBUTE = AccessLogFilter.class.getName() + ".user";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    @Value("${access-log.success-sample-rate:0.1}")
+    private double successSampleRate;
+
+    @Bean
+    static MongoClientSettingsBuilderCustomizer mongoRequestTimingCustomizer() {
+        return settings -> settings.addCommandListener(new MongoRequestTiming());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        MongoRequestTiming.Timing mongo = MongoRequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MongoRequestTiming.stop();
+            if (request.isAsyncStarted()) {
+                // Streaming responses finish on another thread; log once the status is final
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, mongo);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start, mongo);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start,
+                     MongoRequestTiming.Timing mongo) {
+        int status = response.getStatus();
+        if (status < 400 && (!accessLog.isInfoEnabled()
+                || ThreadLocalRandom.current().nextDouble() >= successSampleRate)) {
+            return;
+        }
+
+        // The matched pattern keeps ids out of the route; unmapped requests fall back to the raw path
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String line = "{\"user\":" + quote(request.getAttribute(USER_ATTRIBUTE))
+                + ",\"method\":" + quote(request.getMethod())
+                + ",\"route\":" + quote(pattern != null ? pattern : request.getRequestURI())
+                + ",\"status\":" + status
+                + ",\"latencyMs\":" + millis(System.nanoTime() - start)
+                + ",\"mongoMs\":" + millis(mongo.nanos)
+                + ",\"mongoCommands\":" + mongo.commands
+                + "}";
+
+        if (status >= 500) {
+            accessLog.error(line);
+        } else if (status >= 400) {
+            accessLog.warn(line);
+        } else {
+            accessLog.info(line);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return Long.toString(nanos / 1_000_000) + '.' + (nanos / 100_000 % 10) + (nanos / 10_000 % 10);
+    }
+
+    private static String quote(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String text = value.toString();
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
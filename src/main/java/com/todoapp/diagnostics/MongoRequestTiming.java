@@ -0,0 +1,48 @@
+package com.todoapp.diagnostics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+// Adds up the Mongo command time spent by the current request. The blocking driver reports each command
+// on the thread that ran it, so a thread-local is enough; work the request hands to other threads (streamed
+// exports, cache loads on virtual threads) is not counted.
+public class MongoRequestTiming implements CommandListener {
+
+    private static final ThreadLocal<Timing> CURRENT = new ThreadLocal<>();
+
+    static Timing start() {
+        Timing timing = new Timing();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static void record(long nanos) {
+        Timing timing = CURRENT.get();
+        if (timing != null) {
+            timing.commands++;
+            timing.nanos += nanos;
+        }
+    }
+
+    static final class Timing {
+        int commands;
+        long nanos;
+    }
+}
@@ -0,0 +1,54 @@
+package com.todoapp.diagnostics;
+
+import com.todoapp.dto.AuthResponse;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Times every public method of the servlet services as service.calls{service, method, outcome, exception}.
+// outcome is success, error (an exception escaped) or failure (an AuthResponse that refused the request,
+// such as bad credentials).
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private final Meter.MeterProvider<Timer> calls;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.calls = Timer.builder("service.calls")
+                .description("Service method latency")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+    }
+
+    @Around("execution(public * com.todoapp.service.TaskService.*(..))"
+            + " || execution(public * com.todoapp.service.AuthService.*(..))"
+            + " || execution(public * com.todoapp.service.UserProvisioningService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "error";
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof AuthResponse response && !response.isSuccess() ? "failure" : "success";
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Signature signature = joinPoint.getSignature();
+            calls.withTags("service", signature.getDeclaringType().getSimpleName(),
+                            "method", signature.getName(),
+                            "outcome", outcome,
+                            "exception", exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
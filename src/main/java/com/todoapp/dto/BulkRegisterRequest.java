@@ -0,0 +1,15 @@
+package com.todoapp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+// Entries are validated one by one, so a bad entry fails alone instead of the whole batch
+@Data
+public class BulkRegisterRequest {
+    @NotEmpty(message = "users must not be empty")
+    @Size(max = 10000, message = "At most 10000 users per request")
+    private List<RegisterRequest> users;
+}
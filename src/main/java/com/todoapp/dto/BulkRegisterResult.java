@@ -0,0 +1,23 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkRegisterResult {
+    private int created;
+    private int failed;
+    // One entry per requested user, in request order
+    private List<Outcome> results;
+
+    @Data
+    @AllArgsConstructor
+    public static class Outcome {
+        private String username;
+        private boolean success;
+        private String message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkResult {
+    private List<String> succeededIds;
+    private List<String> failedIds;
+}
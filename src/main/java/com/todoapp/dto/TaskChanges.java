@@ -0,0 +1,20 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TaskChanges {
+    // Tasks created or modified after the requested sequence
+    private List<Task> changed;
+
+    // Ids of tasks deleted after the requested sequence
+    private List<String> deleted;
+
+    // Pass back as since on the next call
+    private long highWater;
+}
@@ -0,0 +1,18 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One task change on the event stream. type is created, updated, toggled, archived, deleted or completed
+// (bulk complete), or reset when the client missed events and has to reload its list.
+@Data
+@AllArgsConstructor
+public class TaskEvent {
+    private String type;
+
+    private String taskId;
+
+    // The task after the change; absent for deletes, bulk completes and resets
+    private Task task;
+}
@@ -0,0 +1,29 @@
+package com.todoapp.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Query parameters of GET /api/todos. priority and tags may repeat or be comma separated;
+// sort is createdAt (default, newest first), dueDate (soonest first) or priority (highest first).
+@Data
+public class TaskListQuery {
+
+    private Boolean completed;
+
+    private Boolean archived;
+
+    private List<String> priority;
+
+    private List<String> tags;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueBefore;
+
+    private String sort;
+}
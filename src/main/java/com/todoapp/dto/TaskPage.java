@@ -0,0 +1,16 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TaskPage {
+    private List<Task> items;
+
+    // Absent on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class TaskStatsResponse {
+    private long total;
+
+    private long completed;
+
+    private long archived;
+
+    // Not completed, not archived, due date passed
+    private long overdue;
+
+    private Map<String, Long> byPriority;
+}
@@ -0,0 +1,13 @@
+package com.todoapp.exception;
+
+// The request itself is malformed (an invalid cursor, an unknown sort or field); answered with 400 and the message
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.todoapp.exception;
+
+import lombok.Getter;
+
+// The client has used up its request budget; answered with 429 and Retry-After
+@Getter
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,10 @@
+package com.todoapp.exception;
+
+// Delta sync cannot answer: deletes since the client's sequence may have expired. Answered with 410; the client
+// does a full sync (since=0)
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.todoapp.exception;
+
+import lombok.Getter;
+
+// Work was refused up front because a bounded resource is saturated; answered with 503 and Retry-After
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,6 +1,9 @@
 package com.todoapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -9,6 +12,22 @@ import java.util.List;
 import java.util.Objects;
 
 @Document(collection = "tasks")
+// Backs keyset pagination: each page is a bounded range scan on (userId, createdAt, _id)
+@CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+// Backs delta sync: changes since a sequence number
+@CompoundIndex(name = "userId_changeSeq", def = "{'userId': 1, 'changeSeq': 1}")
+// Filtered lists (GET /api/todos with completed and archived set), one index per sort order. Equality on the
+// flags comes first, then the sort key, so e.g. "active, not archived, due this week, by due date" is one
+// bounded range scan that reads only matching documents. priority and tags are checked on the fetched
+// documents; lists filtered on only one flag, or unfiltered lists sorted by due date or priority, sort in memory.
+@CompoundIndex(name = "userId_completed_archived_createdAt_id",
+        def = "{'userId': 1, 'completed': 1, 'archived': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_completed_archived_dueDate_id",
+        def = "{'userId': 1, 'completed': 1, 'archived': 1, 'dueDate': 1, '_id': 1}")
+@CompoundIndex(name = "userId_completed_archived_priorityRank_id",
+        def = "{'userId': 1, 'completed': 1, 'archived': 1, 'priorityRank': -1, '_id': -1}")
+// Archived tasks waiting to be moved to tasks_archive; the partial index keeps the archiver's scan off everything else
+@CompoundIndex(name = "archived_updatedAt", def = "{'updatedAt': 1}", partialFilter = "{'archived': true}")
 public class Task {
     @Id
     private String id;
@@ -18,9 +37,18 @@ public class Task {
     private boolean completed;
     private Instant createdAt;
     private String priority = "medium";
+    // Sortable form of priority, kept in step by setPriority
+    @JsonIgnore
+    private Integer priorityRank = rankOf(priority);
     private List<String> tags;
     private LocalDateTime dueDate;
     private boolean archived;
+    private Instant updatedAt;
+    // Set when the archiver moved the task to tasks_archive; null for tasks in the tasks collection
+    private Instant archivedAt;
+
+    // ChangeSequence value stamped on every write: ordered across all tasks, and updatedAt is its time
+    private long changeSeq;
 
     public Task() {
         this.createdAt = Instant.now();
@@ -28,6 +56,15 @@ public class Task {
         this.archived = false;
     }
 
+    // Used when reading from Mongo, so a legacy document without createdAt reads as null rather than as now:
+    // list cursors are built from the value actually stored
+    @PersistenceCreator
+    static Task stored() {
+        Task task = new Task();
+        task.createdAt = null;
+        return task;
+    }
+
     public Task(String id, String userId, String title, String description, boolean completed, Instant createdAt) {
         this.id = id;
         this.userId = userId;
@@ -93,6 +130,28 @@ public class Task {
 
     public void setPriority(String priority) {
         this.priority = priority;
+        this.priorityRank = rankOf(priority);
+    }
+
+    public Integer getPriorityRank() {
+        return priorityRank;
+    }
+
+    public void setPriorityRank(Integer priorityRank) {
+        this.priorityRank = priorityRank;
+    }
+
+    // high 3, medium 2, low 1; anything else has no rank and sorts last
+    public static Integer rankOf(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        return switch (priority.toLowerCase()) {
+            case "high" -> 3;
+            case "medium" -> 2;
+            case "low" -> 1;
+            default -> null;
+        };
     }
 
     public List<String> getTags() {
@@ -119,6 +178,30 @@ public class Task {
         this.archived = archived;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Instant archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,63 @@
+package com.todoapp.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-user task counters, kept current with $inc on every task write and rebuilt from the tasks
+// collection on demand. Overdue is not a counter, since tasks become overdue with time alone: openDue
+// counts open (not completed, not archived) tasks per UTC day of their due date, and reads add up the
+// days that have passed.
+@Data
+@NoArgsConstructor
+@Document(collection = "task_stats")
+public class TaskStats {
+
+    // The owner's user id (tasks' userId)
+    @Id
+    private String id;
+
+    private long total;
+
+    private long completed;
+
+    private long archived;
+
+    // high, medium, low and other
+    private Map<String, Long> priorities = new HashMap<>();
+
+    // yyyy-MM-dd -> open tasks due that day
+    private Map<String, Long> openDue = new HashMap<>();
+
+    private Instant rebuiltAt;
+
+    public TaskStats(String id) {
+        this.id = id;
+    }
+
+    public static String priorityKey(String priority) {
+        return priority != null && List.of("high", "medium", "low").contains(priority) ? priority : "other";
+    }
+
+    // Due dates are stored as the instant of the local date-time in the server's zone; days are taken in
+    // UTC so they match $dateToString over the stored values
+    public static String dueDayKey(LocalDateTime dueDate) {
+        return dueDate.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    // The first local date-time falling on the given due day
+    public static LocalDateTime startOfDueDay(String dayKey) {
+        return LocalDate.parse(dayKey).atStartOfDay(ZoneOffset.UTC).withZoneSameInstant(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+}
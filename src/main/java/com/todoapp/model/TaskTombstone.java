@@ -0,0 +1,34 @@
+package com.todoapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Left behind by a task delete so delta-sync clients learn about it. Clients that stay away
+// longer than the TTL have to do a full sync (since=0); delta sync answers them with 410.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "task_tombstones")
+@CompoundIndex(name = "userId_changeSeq", def = "{'userId': 1, 'changeSeq': 1}")
+public class TaskTombstone {
+
+    public static final int TTL_SECONDS = 30 * 24 * 60 * 60;
+
+    // Id of the deleted task
+    @Id
+    private String id;
+
+    private String userId;
+
+    private long changeSeq;
+
+    @Indexed(expireAfterSeconds = TTL_SECONDS)
+    private Instant deletedAt;
+}
@@ -26,6 +26,14 @@ public class User {
 
     private String password;
 
+    // Bumped to revoke every token issued before the change
+    private int tokenVersion;
+
+    private boolean disabled;
+
+    // Grants ROLE_ADMIN; only set directly in the database
+    private boolean admin;
+
     @CreatedDate
     private LocalDateTime createdAt;
 }
\ No newline at end of file
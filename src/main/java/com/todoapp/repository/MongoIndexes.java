@@ -0,0 +1,138 @@
+package com.todoapp.repository;
+
+import com.mongodb.MongoTimeoutException;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import com.todoapp.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Creates the indexes declared on the documents (@Indexed, @CompoundIndex) and the archive collection's once
+// per start, on a background thread, so startup waits neither for Mongo nor for index builds. Spring Data's
+// auto-index-creation stays off: it does both, and an index that cannot be built fails startup. Here each
+// index is created on its own and a failure (a unique index over existing duplicates, say) is only logged.
+// The exception is the unique username index: registration relies on it alone to reject names that are taken,
+// so it is ensured before the app takes traffic, and startup fails if it cannot be.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexes {
+
+    private static final List<Class<?>> DOCUMENTS = List.of(User.class, Task.class, TaskTombstone.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${todos.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    @PostConstruct
+    public void ensureRequired() {
+        ensureRequired(mongoTemplate.getConverter().getMappingContext(),
+                index -> mongoTemplate.indexOps(index.getCollection()).ensureIndex(index));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (createOnStartup) {
+            inBackground(() -> createAll(mongoTemplate.getConverter().getMappingContext(),
+                    index -> mongoTemplate.indexOps(index.getCollection()).ensureIndex(index)));
+        }
+    }
+
+    static void inBackground(Runnable task) {
+        Thread thread = new Thread(task, "mongo-indexes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // ensureIndex is a no-op for an index that already exists with the same definition
+    static void createAll(MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext,
+                          Consumer<IndexDefinitionHolder> ensureIndex) {
+        List<IndexDefinitionHolder> indexes = declared(mappingContext);
+        int failed = 0;
+        for (IndexDefinitionHolder index : indexes) {
+            try {
+                ensureIndex.accept(index);
+            } catch (DataAccessResourceFailureException | MongoTimeoutException e) {
+                log.warn("Could not reach Mongo to create indexes; they are retried on the next start", e);
+                return;
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Could not create index {} on {}", index.getIndexKeys().toJson(), index.getCollection(), e);
+            }
+        }
+        if (failed == 0) {
+            log.info("Ensured {} Mongo indexes", indexes.size());
+        } else {
+            log.warn("Ensured {} of {} Mongo indexes; the rest are retried on the next start",
+                    indexes.size() - failed, indexes.size());
+        }
+    }
+
+    static void ensureRequired(
+            MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext,
+            Consumer<IndexDefinitionHolder> ensureIndex) {
+        for (IndexDefinitionHolder index : required(mappingContext)) {
+            try {
+                ensureIndex.accept(index);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Could not create the unique index " + index.getIndexKeys().toJson()
+                        + " on " + index.getCollection() + "; remove any duplicates it reports and restart", e);
+            }
+        }
+        log.info("Ensured the unique username index");
+    }
+
+    static List<IndexDefinitionHolder> required(
+            MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext) {
+        List<IndexDefinitionHolder> indexes = new ArrayList<>();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(TypeInformation.of(User.class))
+                .forEach(index -> {
+                    if (index.getIndexOptions().getBoolean("unique", false)) {
+                        indexes.add(index);
+                    }
+                });
+        return indexes;
+    }
+
+    static List<IndexDefinitionHolder> declared(
+            MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext) {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<IndexDefinitionHolder> indexes = new ArrayList<>();
+        for (Class<?> document : DOCUMENTS) {
+            resolver.resolveIndexFor(TypeInformation.of(document)).forEach(indexes::add);
+        }
+        // The archive collection has no entity of its own: the user's archive newest first, the list version
+        // and the purge scan
+        indexes.add(new IndexDefinitionHolder("", new Index().named("userId_createdAt_id")
+                .on("userId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC),
+                TaskQueries.ARCHIVE_COLLECTION));
+        indexes.add(new IndexDefinitionHolder("", new Index().named("userId_changeSeq")
+                .on("userId", Sort.Direction.ASC).on("changeSeq", Sort.Direction.ASC),
+                TaskQueries.ARCHIVE_COLLECTION));
+        indexes.add(new IndexDefinitionHolder("", new Index().named("archivedAt").on("archivedAt", Sort.Direction.ASC),
+                TaskQueries.ARCHIVE_COLLECTION));
+        return indexes;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todoapp.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+// MongoIndexes for the reactive stack; blocking is fine on its own thread
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveMongoIndexes {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${todos.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    // Blocks the main thread, not an event loop: nothing is served until the context is up
+    @PostConstruct
+    public void ensureRequired() {
+        MongoIndexes.ensureRequired(mongoTemplate.getConverter().getMappingContext(),
+                index -> mongoTemplate.indexOps(index.getCollection()).ensureIndex(index).block());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (createOnStartup) {
+            MongoIndexes.inBackground(() -> MongoIndexes.createAll(mongoTemplate.getConverter().getMappingContext(),
+                    index -> mongoTemplate.indexOps(index.getCollection()).ensureIndex(index).block()));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveTaskRepository extends ReactiveMongoRepository<Task, String>, ReactiveTaskRepositoryCustom {
+    Flux<Task> findByUserIdOrderByCreatedAtDesc(String userId);
+}
@@ -0,0 +1,57 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import org.bson.types.ObjectId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+// Non-blocking counterpart of TaskRepositoryCustom; same queries, same semantics
+public interface ReactiveTaskRepositoryCustom {
+
+    Flux<Task> findPageByUserId(String userId, TaskFilter filter, TaskFields fields, TaskCursor after, int limit);
+
+    // Newest first, read with only the given fields
+    Flux<Task> findAllByUserId(String userId, TaskFields fields);
+
+    // Demand-driven: documents are fetched from the cursor as the subscriber requests them
+    Flux<Task> streamByUserId(String userId, int batchSize);
+
+    Mono<Long> completeAllByUserId(String userId, Collection<ObjectId> ids);
+
+    Flux<String> findIdsByUserId(String userId, Collection<ObjectId> ids);
+
+    // Open tasks due in [from, before)
+    Mono<Long> countOpenDueByUserId(String userId, LocalDateTime from, LocalDateTime before);
+
+    Mono<Long> deleteAllByUserId(String userId, Collection<ObjectId> ids);
+
+    // Each of these completes empty when the task does not exist or belongs to someone else
+    Mono<Task> deleteByUserId(String userId, String taskId);
+
+    Mono<Task> toggleCompletedByUserId(String userId, String taskId);
+
+    Mono<Task> toggleArchivedByUserId(String userId, String taskId);
+
+    // Returns the task as it was before the $set
+    Mono<Task> setFieldsByUserId(String userId, String taskId, Map<String, Object> fields, long changeSeq);
+
+    Flux<Task> findChangedByUserId(String userId, long sinceSeq);
+
+    Mono<Long> findLatestChangeByUserId(String userId);
+
+    Flux<TaskTombstone> findTombstonesByUserId(String userId, long sinceSeq);
+
+    Flux<Task> findArchivedPageByUserId(String userId, TaskCursor after, int limit);
+
+    Flux<Task> findColdPageByUserId(String userId, TaskCursor after, int limit);
+
+    // Both complete empty when the archive collection has no such task
+    Mono<Task> restoreArchivedByUserId(String userId, String taskId);
+
+    Mono<Task> deleteArchivedByUserId(String userId, String taskId);
+}
@@ -0,0 +1,165 @@
+package com.todoapp.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReactiveTaskRepositoryImpl implements ReactiveTaskRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Task> findPageByUserId(String userId, TaskFilter filter, TaskFields fields, TaskCursor after,
+                                       int limit) {
+        return mongoTemplate.find(TaskQueries.page(userId, filter, fields, after, limit), Task.class);
+    }
+
+    @Override
+    public Flux<Task> findAllByUserId(String userId, TaskFields fields) {
+        return mongoTemplate.find(TaskQueries.newestFirst(userId, fields), Task.class);
+    }
+
+    @Override
+    public Flux<Task> streamByUserId(String userId, int batchSize) {
+        return mongoTemplate.find(TaskQueries.allByUser(userId, batchSize), Task.class);
+    }
+
+    @Override
+    public Mono<Long> completeAllByUserId(String userId, Collection<ObjectId> ids) {
+        return mongoTemplate.updateMulti(TaskQueries.ownedBy(userId, ids),
+                        TaskQueries.stamp(Update.update("completed", true), ChangeSequence.next()), Task.class)
+                .map(UpdateResult::getMatchedCount);
+    }
+
+    @Override
+    public Flux<String> findIdsByUserId(String userId, Collection<ObjectId> ids) {
+        return mongoTemplate.find(TaskQueries.idsOwnedBy(userId, ids), Task.class)
+                .map(Task::getId);
+    }
+
+    @Override
+    public Mono<Long> countOpenDueByUserId(String userId, LocalDateTime from, LocalDateTime before) {
+        return mongoTemplate.count(TaskQueries.openDueBetween(userId, from, before), Task.class);
+    }
+
+    @Override
+    public Mono<Long> deleteAllByUserId(String userId, Collection<ObjectId> ids) {
+        return mongoTemplate.remove(TaskQueries.ownedBy(userId, ids), Task.class)
+                .map(DeleteResult::getDeletedCount)
+                .flatMap(deleted -> deleted > 0
+                        ? writeTombstones(userId, ids.stream().map(ObjectId::toHexString).toList()).thenReturn(deleted)
+                        : Mono.just(deleted));
+    }
+
+    @Override
+    public Mono<Task> deleteByUserId(String userId, String taskId) {
+        return mongoTemplate.findAndRemove(TaskQueries.ownedBy(userId, taskId), Task.class)
+                .flatMap(deleted -> writeTombstones(userId, List.of(deleted.getId())).thenReturn(deleted));
+    }
+
+    @Override
+    public Mono<Task> toggleCompletedByUserId(String userId, String taskId) {
+        return findAndModifyOwned(userId, taskId, TaskQueries.negate("completed", ChangeSequence.next()));
+    }
+
+    @Override
+    public Mono<Task> toggleArchivedByUserId(String userId, String taskId) {
+        return findAndModifyOwned(userId, taskId, TaskQueries.negate("archived", ChangeSequence.next()));
+    }
+
+    @Override
+    public Mono<Task> setFieldsByUserId(String userId, String taskId, Map<String, Object> fields, long changeSeq) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return mongoTemplate.findAndModify(TaskQueries.ownedBy(userId, taskId), TaskQueries.stamp(update, changeSeq),
+                TaskQueries.RETURN_OLD, Task.class);
+    }
+
+    @Override
+    public Flux<Task> findChangedByUserId(String userId, long sinceSeq) {
+        return mongoTemplate.find(TaskQueries.changedSince(userId, sinceSeq), Task.class);
+    }
+
+    @Override
+    public Mono<Long> findLatestChangeByUserId(String userId) {
+        Query query = TaskQueries.latestChange(userId);
+        return Flux.just(mongoTemplate.getCollectionName(Task.class), TaskQueries.ARCHIVE_COLLECTION,
+                        mongoTemplate.getCollectionName(TaskTombstone.class))
+                .flatMap(collection -> mongoTemplate.findOne(query, Document.class, collection))
+                .map(TaskQueries::changeSeqOf)
+                .reduce(0L, Math::max);
+    }
+
+    @Override
+    public Flux<TaskTombstone> findTombstonesByUserId(String userId, long sinceSeq) {
+        return mongoTemplate.find(TaskQueries.changedSince(userId, sinceSeq), TaskTombstone.class);
+    }
+
+    @Override
+    public Flux<Task> findArchivedPageByUserId(String userId, TaskCursor after, int limit) {
+        return mongoTemplate.find(TaskQueries.archivedNewestFirst(userId, after, limit), Task.class);
+    }
+
+    @Override
+    public Flux<Task> findColdPageByUserId(String userId, TaskCursor after, int limit) {
+        return mongoTemplate.find(TaskQueries.page(userId, TaskFilter.NONE, TaskFields.ALL, after, limit),
+                Task.class, TaskQueries.ARCHIVE_COLLECTION);
+    }
+
+    // Written to tasks before it leaves the archive, as in the blocking repository
+    @Override
+    public Mono<Task> restoreArchivedByUserId(String userId, String taskId) {
+        return mongoTemplate.findOne(TaskQueries.ownedBy(userId, taskId), Task.class, TaskQueries.ARCHIVE_COLLECTION)
+                .map(task -> {
+                    task.setArchived(false);
+                    task.setArchivedAt(null);
+                    task.setUpdatedAt(Instant.now());
+                    task.setChangeSeq(ChangeSequence.next());
+                    return task;
+                })
+                .flatMap(mongoTemplate::save)
+                .flatMap(restored -> mongoTemplate.remove(TaskQueries.ownedBy(userId, taskId), Task.class,
+                        TaskQueries.ARCHIVE_COLLECTION).thenReturn(restored));
+    }
+
+    @Override
+    public Mono<Task> deleteArchivedByUserId(String userId, String taskId) {
+        return mongoTemplate.findAndRemove(TaskQueries.ownedBy(userId, taskId), Task.class,
+                        TaskQueries.ARCHIVE_COLLECTION)
+                .flatMap(deleted -> writeTombstones(userId, List.of(deleted.getId())).thenReturn(deleted));
+    }
+
+    private Mono<Task> findAndModifyOwned(String userId, String taskId, UpdateDefinition update) {
+        return mongoTemplate.findAndModify(TaskQueries.ownedBy(userId, taskId), update, TaskQueries.RETURN_NEW,
+                Task.class);
+    }
+
+    private Mono<Void> writeTombstones(String userId, List<String> taskIds) {
+        Update tombstone = TaskQueries.tombstone(userId, ChangeSequence.next());
+        ReactiveBulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                TaskTombstone.class);
+        for (String taskId : taskIds) {
+            operations.upsert(TaskQueries.tombstoneOf(taskId), tombstone);
+        }
+        return operations.execute().then();
+    }
+}
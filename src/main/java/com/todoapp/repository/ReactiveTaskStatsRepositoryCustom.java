@@ -0,0 +1,16 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskStats;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Non-blocking counterpart of TaskStatsRepositoryCustom; both stacks keep the same stats documents
+public interface ReactiveTaskStatsRepositoryCustom {
+
+    // Same $inc as TaskStatsRepositoryCustom.increment
+    Mono<Void> increment(String userId, Map<String, Long> deltas);
+
+    // Same aggregations as TaskStatsRepositoryCustom.rebuild
+    Mono<TaskStats> rebuild(String userId);
+}
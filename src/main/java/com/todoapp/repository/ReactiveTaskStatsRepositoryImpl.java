@@ -0,0 +1,47 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskStats;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReactiveTaskStatsRepositoryImpl implements ReactiveTaskStatsRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> increment(String userId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        return mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), update, TaskStats.class).then();
+    }
+
+    @Override
+    public Mono<TaskStats> rebuild(String userId) {
+        TaskStats stats = new TaskStats(userId);
+        Aggregation counts = TaskStatsRepositoryImpl.counts(userId);
+        return Flux.just(mongoTemplate.getCollectionName(Task.class), TaskQueries.ARCHIVE_COLLECTION)
+                .concatMap(collection -> mongoTemplate.aggregate(counts, collection, Document.class))
+                .doOnNext(row -> TaskStatsRepositoryImpl.addCount(stats, row))
+                .thenMany(mongoTemplate.aggregate(TaskStatsRepositoryImpl.openDue(userId), Task.class, Document.class))
+                .doOnNext(row -> TaskStatsRepositoryImpl.addOpenDue(stats, row))
+                .then(Mono.defer(() -> {
+                    stats.setRebuiltAt(Instant.now());
+                    return mongoTemplate.save(stats);
+                }));
+    }
+}
@@ -0,0 +1,253 @@
+package com.todoapp.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.todoapp.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+// Read-only task paths (lists, stats, search) can be served by secondaries or the nearest member. Each routed
+// read runs in a causally consistent session advanced to the caller's last write, so the member waits until it
+// has replicated that write before answering: users always see their own writes. Writes stay on the primary.
+//
+// A write's operation time is taken from the driver's reply and kept per user on this instance; it is also
+// returned in the X-Read-After response header. Clients send that token back on later requests, which carries
+// the guarantee across instances. Off by default: needs a replica set (scripts/replica-set.sh for a local one).
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class ReadRouting {
+
+    public static final String TOKEN_HEADER = "X-Read-After";
+
+    private static final ThreadLocal<WriteTime> LAST_WRITE = new ThreadLocal<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoClient mongoClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.read-routing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${todos.read-routing.read-preference:secondaryPreferred}")
+    private String readPreferenceName;
+
+    @Value("${todos.read-routing.max-staleness-seconds:0}")
+    private long maxStalenessSeconds;
+
+    @Value("${todos.read-routing.remember-writes-seconds:600}")
+    private long rememberWritesSeconds;
+
+    @Value("${todos.read-routing.max-users:100000}")
+    private long maxUsers;
+
+    private ReadPreference readPreference;
+    private Cache<String, WriteTime> lastWrites;
+    private Counter afterWrite;
+    private Counter unconstrained;
+
+    // Write replies carry operationTime only on replica sets and sharded clusters
+    @Bean
+    @ConditionalOnProperty(name = "todos.read-routing.enabled", havingValue = "true")
+    static MongoClientSettingsBuilderCustomizer writeTimeCustomizer() {
+        return settings -> settings.addCommandListener(new WriteTimeListener());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        this.readPreference = maxStalenessSeconds > 0
+                ? ReadPreference.valueOf(readPreferenceName, List.of(), maxStalenessSeconds, TimeUnit.SECONDS)
+                : ReadPreference.valueOf(readPreferenceName);
+        this.lastWrites = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(rememberWritesSeconds, TimeUnit.SECONDS)
+                .build();
+        this.afterWrite = routedReads("after-write");
+        this.unconstrained = routedReads("none");
+    }
+
+    private Counter routedReads(String consistency) {
+        return Counter.builder("mongo.reads.routed")
+                .description("Reads sent to " + readPreferenceName + ", by whether they waited for a write")
+                .tag("consistency", consistency)
+                .register(meterRegistry);
+    }
+
+    public <T> T read(String userId, Query query, BiFunction<MongoOperations, Query, T> read) {
+        if (!enabled) {
+            return read.apply(mongoTemplate, query);
+        }
+        if (!sessionsSupported()) {
+            return read.apply(mongoTemplate, query.withReadPreference(readPreference));
+        }
+        try (ClientSession session = startSession(userId)) {
+            return read.apply(mongoTemplate.withSession(session), query.withReadPreference(readPreference));
+        }
+    }
+
+    // The session stays open until the stream is closed
+    public <T> Stream<T> stream(String userId, Query query, BiFunction<MongoOperations, Query, Stream<T>> read) {
+        if (!enabled) {
+            return read.apply(mongoTemplate, query);
+        }
+        if (!sessionsSupported()) {
+            return read.apply(mongoTemplate, query.withReadPreference(readPreference));
+        }
+        ClientSession session = startSession(userId);
+        try {
+            return read.apply(mongoTemplate.withSession(session), query.withReadPreference(readPreference))
+                    .onClose(session::close);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    // Called after the user's writes on this thread; remembers the latest and returns it to the client
+    public void wrote(String userId) {
+        WriteTime written = takeLastWrite();
+        if (!enabled || written == null) {
+            return;
+        }
+        WriteTime latest = lastWrites.asMap().merge(userId, written, WriteTime::later);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            HttpServletResponse response = attributes.getResponse();
+            if (!response.isCommitted()) {
+                response.setHeader(TOKEN_HEADER, latest.encode());
+            }
+        }
+    }
+
+    // Hands a write made on another thread (group commit) to the thread that will call wrote
+    public static WriteTime takeLastWrite() {
+        WriteTime written = LAST_WRITE.get();
+        LAST_WRITE.remove();
+        return written;
+    }
+
+    public static void carryLastWrite(WriteTime written) {
+        if (written != null) {
+            LAST_WRITE.set(WriteTime.later(LAST_WRITE.get(), written));
+        }
+    }
+
+    // Standalone servers have no sessions and nothing to wait for; reported as null until first connected
+    private boolean sessionsSupported() {
+        return mongoClient.getClusterDescription().getLogicalSessionTimeoutMinutes() != null;
+    }
+
+    private ClientSession startSession(String userId) {
+        WriteTime after = WriteTime.later(lastWrites.getIfPresent(userId), requestToken());
+        ClientSession session = mongoClient.startSession(ClientSessionOptions.builder()
+                .causallyConsistent(true)
+                .build());
+        if (after != null) {
+            if (after.clusterTime() != null) {
+                session.advanceClusterTime(after.clusterTime());
+            }
+            session.advanceOperationTime(after.operationTime());
+            afterWrite.increment();
+        } else {
+            unconstrained.increment();
+        }
+        return session;
+    }
+
+    private static WriteTime requestToken() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            String token = request.getHeader(TOKEN_HEADER);
+            return token != null && !token.isEmpty() ? WriteTime.decode(token) : null;
+        }
+        return null;
+    }
+
+    // Operation time of a write and the signed cluster time that came with it
+    public record WriteTime(BsonTimestamp operationTime, BsonDocument clusterTime) {
+
+        static WriteTime later(WriteTime a, WriteTime b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.operationTime.compareTo(b.operationTime) >= 0 ? a : b;
+        }
+
+        String encode() {
+            BsonDocument token = new BsonDocument("o", operationTime);
+            if (clusterTime != null) {
+                token.put("c", clusterTime);
+            }
+            ByteBuffer bytes = new RawBsonDocument(token, new BsonDocumentCodec()).getByteBuffer().asNIO();
+            byte[] encoded = new byte[bytes.remaining()];
+            bytes.get(encoded);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded);
+        }
+
+        static WriteTime decode(String token) {
+            try {
+                BsonDocument decoded = new RawBsonDocument(Base64.getUrlDecoder().decode(token));
+                return new WriteTime(decoded.getTimestamp("o"),
+                        decoded.containsKey("c") ? decoded.getDocument("c") : null);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid " + TOKEN_HEADER + " token", e);
+            }
+        }
+    }
+
+    // The sync driver reports a command on the thread that ran it
+    static final class WriteTimeListener implements CommandListener {
+
+        private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findAndModify");
+
+        @Override
+        public void commandSucceeded(CommandSucceededEvent event) {
+            BsonDocument reply = event.getResponse();
+            if (!WRITES.contains(event.getCommandName()) || reply == null || !reply.isTimestamp("operationTime")) {
+                return;
+            }
+            WriteTime written = new WriteTime(reply.getTimestamp("operationTime"),
+                    reply.isDocument("$clusterTime") ? reply.getDocument("$clusterTime") : null);
+            LAST_WRITE.set(WriteTime.later(LAST_WRITE.get(), written));
+        }
+    }
+}
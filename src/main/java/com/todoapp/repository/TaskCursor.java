@@ -0,0 +1,48 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position: the sort value and id of the last task on the previous page. Newest-first
+// cursors keep their original "createdAtMillis:id" form; other orders are prefixed with the sort name.
+public record TaskCursor(TaskSort sort, Object position, String id) {
+
+    public static TaskCursor of(TaskSort sort, Task task) {
+        return new TaskCursor(sort, sort.positionOf(task), task.getId());
+    }
+
+    public String encode() {
+        String raw = sort.encodePosition(position) + ":" + id;
+        if (sort != TaskSort.CREATED_AT) {
+            raw = sort.name() + ":" + raw;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // Positions may contain ':' themselves (date-times), ids never do
+            int idSeparator = raw.lastIndexOf(':');
+            String id = raw.substring(idSeparator + 1);
+            if (idSeparator < 1 || !ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String head = raw.substring(0, idSeparator);
+
+            TaskSort sort = TaskSort.CREATED_AT;
+            int sortSeparator = head.indexOf(':');
+            if (sortSeparator > 0 && !Character.isDigit(head.charAt(0))) {
+                sort = TaskSort.valueOf(head.substring(0, sortSeparator));
+                head = head.substring(sortSeparator + 1);
+            }
+            return new TaskCursor(sort, sort.decodePosition(head), id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Sparse fieldset of a task list (fields=title,completed,...). Applied as a Mongo projection, so fields nobody
+// asked for are neither read nor decoded, and to the response through Task's Jackson filter, which hides the
+// Java defaults the projection leaves behind. id is always returned. An empty set means every field.
+public record TaskFields(Set<String> names) {
+
+    public static final TaskFields ALL = new TaskFields(Set.of());
+
+    private static final Set<String> SELECTABLE = Set.of("id", "userId", "title", "description", "completed",
+            "archived", "priority", "tags", "dueDate", "createdAt", "updatedAt", "archivedAt", "changeSeq");
+
+    public TaskFields {
+        names = Set.copyOf(names);
+    }
+
+    // Values may repeat or be comma separated; unknown names are rejected
+    public static TaskFields parse(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return ALL;
+        }
+        Set<String> names = new TreeSet<>();
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                name = name.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!SELECTABLE.contains(name)) {
+                    throw new BadRequestException("Unknown field: " + name);
+                }
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            return ALL;
+        }
+        names.add("id");
+        return new TaskFields(names);
+    }
+
+    public boolean all() {
+        return names.isEmpty();
+    }
+
+    // Distinguishes cached list views
+    public String key() {
+        return all() ? "*" : String.join(",", new TreeSet<>(names));
+    }
+
+    // The sort field is read even when not asked for: the next page's cursor is built from it
+    Query project(Query query, TaskSort sort) {
+        if (!all()) {
+            query.fields().include(names.toArray(String[]::new)).include(sort.field());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,24 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Which tasks a list shows and in what order. Null and empty fields do not filter. priorities matches
+// any of the values, tags requires all of them; dueAfter is inclusive and dueBefore exclusive.
+public record TaskFilter(Boolean completed, Boolean archived, List<String> priorities, List<String> tags,
+                         LocalDateTime dueAfter, LocalDateTime dueBefore, TaskSort sort) {
+
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null, null, null, TaskSort.CREATED_AT);
+
+    public TaskFilter {
+        priorities = priorities != null ? List.copyOf(priorities) : List.of();
+        tags = tags != null ? List.copyOf(tags) : List.of();
+        sort = sort != null ? sort : TaskSort.CREATED_AT;
+    }
+
+    // Distinguishes cached list views
+    public String key() {
+        return sort + "|" + completed + "|" + archived + "|" + String.join(",", priorities) + "|"
+                + String.join(",", tags) + "|" + dueAfter + "|" + dueBefore;
+    }
+}
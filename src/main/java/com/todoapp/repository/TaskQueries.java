@@ -0,0 +1,235 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Queries and updates shared by the blocking and reactive task repositories
+final class TaskQueries {
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "_id"));
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    static final FindAndModifyOptions RETURN_OLD = FindAndModifyOptions.options().returnNew(false);
+
+    // Archived tasks are moved here by the archiver; same document shape as tasks, plus archivedAt
+    static final String ARCHIVE_COLLECTION = "tasks_archive";
+
+    private TaskQueries() {
+    }
+
+    static Query page(String userId, TaskFilter filter, TaskFields fields, TaskCursor after, int limit) {
+        Criteria criteria = filtered(userId, filter);
+
+        // Seek past the cursor instead of skipping, so every page is a bounded index range scan
+        if (after != null) {
+            if (after.sort() != filter.sort()) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+            criteria.orOperator(seekPast(filter.sort(), after));
+        }
+
+        return fields.project(new Query(criteria)
+                .with(filter.sort().toSort())
+                .limit(limit), filter.sort());
+    }
+
+    private static Criteria filtered(String userId, TaskFilter filter) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (filter.completed() != null) {
+            criteria.and("completed").is(filter.completed());
+        }
+        if (filter.archived() != null) {
+            criteria.and("archived").is(filter.archived());
+        }
+        if (!filter.priorities().isEmpty()) {
+            criteria.and("priority").in(filter.priorities());
+        }
+        if (!filter.tags().isEmpty()) {
+            criteria.and("tags").all(filter.tags());
+        }
+        if (filter.dueAfter() != null || filter.dueBefore() != null) {
+            Criteria due = criteria.and("dueDate");
+            if (filter.dueAfter() != null) {
+                due.gte(filter.dueAfter());
+            }
+            if (filter.dueBefore() != null) {
+                due.lt(filter.dueBefore());
+            }
+        }
+        return criteria;
+    }
+
+    // Tasks strictly after the cursor in (field, _id) order. Missing values sort lowest, so they come
+    // before every value when ascending and after every value when descending.
+    private static Criteria[] seekPast(TaskSort sort, TaskCursor after) {
+        String field = sort.field();
+        ObjectId id = new ObjectId(after.id());
+        boolean ascending = sort.ascending();
+
+        if (after.position() == null) {
+            Criteria tie = Criteria.where(field).is(null).and("_id");
+            return ascending
+                    ? new Criteria[]{tie.gt(id), Criteria.where(field).ne(null)}
+                    : new Criteria[]{tie.lt(id)};
+        }
+
+        Criteria beyond = ascending
+                ? Criteria.where(field).gt(after.position())
+                : Criteria.where(field).lt(after.position());
+        Criteria tie = Criteria.where(field).is(after.position()).and("_id");
+        return ascending
+                ? new Criteria[]{beyond, tie.gt(id)}
+                : new Criteria[]{beyond, tie.lt(id), Criteria.where(field).is(null)};
+    }
+
+    // Archived tasks the archiver has not moved yet. completed is matched both ways so the query stays on the
+    // (userId, completed, archived, createdAt, _id) index, merging its two ranges in order.
+    static Query archivedNewestFirst(String userId, TaskCursor after, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId).and("completed").in(false, true)
+                .and("archived").is(true);
+        if (after != null) {
+            if (after.sort() != TaskSort.CREATED_AT) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+            criteria.orOperator(seekPast(TaskSort.CREATED_AT, after));
+        }
+        return new Query(criteria).with(NEWEST_FIRST).limit(limit);
+    }
+
+    // Oldest archived first, on the partial index over archived tasks. Tasks from before updatedAt existed
+    // have none; they sort first and are always old enough to move.
+    static Query archivedBefore(Instant before, int limit) {
+        return new Query(Criteria.where("archived").is(true)
+                .orOperator(Criteria.where("updatedAt").lt(before), Criteria.where("updatedAt").is(null)))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"))
+                .limit(limit);
+    }
+
+    static Query movedBefore(Instant before, int limit) {
+        return new Query(Criteria.where("archivedAt").lt(before))
+                .with(Sort.by(Sort.Direction.ASC, "archivedAt"))
+                .limit(limit);
+    }
+
+    // The copy is only current if the task was not written again after it was read. A task never written since
+    // changeSeq existed reads as 0 and has no such field; any write since would have stamped one.
+    static Query unchangedSince(Task task) {
+        Criteria unchanged = Criteria.where("_id").is(task.getId());
+        if (task.getChangeSeq() == 0) {
+            return new Query(unchanged.and("changeSeq").in(0L, null));
+        }
+        return new Query(unchanged.and("changeSeq").is(task.getChangeSeq()));
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    static Query byIds(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids.stream().map(ObjectId::new).toList()));
+        query.fields().include("_id");
+        return query;
+    }
+
+    static Query newestFirst(String userId, TaskFields fields) {
+        Query query = new Query(Criteria.where("userId").is(userId)).with(NEWEST_FIRST);
+        return fields.project(query, TaskSort.CREATED_AT);
+    }
+
+    static Query allByUser(String userId, int batchSize) {
+        return new Query(Criteria.where("userId").is(userId))
+                .with(NEWEST_FIRST)
+                .cursorBatchSize(batchSize);
+    }
+
+    static Query ownedBy(String userId, String taskId) {
+        return new Query(Criteria.where("_id").is(taskId).and("userId").is(userId));
+    }
+
+    static Query ownedBy(String userId, Collection<ObjectId> ids) {
+        return new Query(Criteria.where("_id").in(ids).and("userId").is(userId));
+    }
+
+    static Query idsOwnedBy(String userId, Collection<ObjectId> ids) {
+        Query query = ownedBy(userId, ids);
+        query.fields().include("_id");
+        return query;
+    }
+
+    // Just the fields task stats are counted from
+    static Query countedOwnedBy(String userId, Collection<ObjectId> ids) {
+        Query query = ownedBy(userId, ids);
+        query.fields().include("_id", "completed", "archived", "priority", "dueDate");
+        return query;
+    }
+
+    // The listed tasks still carrying the sequence number a write stamped them with
+    static Query stampedWith(String userId, Collection<ObjectId> ids, long changeSeq) {
+        Query query = new Query(Criteria.where("_id").in(ids).and("userId").is(userId).and("changeSeq").is(changeSeq));
+        query.fields().include("_id");
+        return query;
+    }
+
+    static Query openDueBetween(String userId, LocalDateTime from, LocalDateTime before) {
+        return new Query(Criteria.where("userId").is(userId).and("completed").is(false).and("archived").is(false)
+                .and("dueDate").gte(from).lt(before));
+    }
+
+    // The user's latest change, read from the userId_changeSeq index alone
+    static Query latestChange(String userId) {
+        Query query = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "changeSeq"))
+                .limit(1);
+        query.fields().include("changeSeq").exclude("_id");
+        return query;
+    }
+
+    static long changeSeqOf(Document latest) {
+        return latest != null && latest.get("changeSeq") instanceof Number changeSeq ? changeSeq.longValue() : 0;
+    }
+
+    static Query changedSince(String userId, long sinceSeq) {
+        return new Query(Criteria.where("userId").is(userId).and("changeSeq").gt(sinceSeq))
+                .with(Sort.by(Sort.Direction.ASC, "changeSeq"));
+    }
+
+    // updatedAt is the time held in the sequence number, so callers can tell what the write set
+    static Update stamp(Update update, long changeSeq) {
+        return update.set("changeSeq", changeSeq)
+                .set("updatedAt", ChangeSequence.timeOf(changeSeq));
+    }
+
+    // Flipped server-side with an update pipeline, so concurrent toggles cannot be lost
+    static AggregationUpdate negate(String field, long changeSeq) {
+        return AggregationUpdate.update()
+                .set(field).toValue(BooleanOperators.Not.not(field))
+                .set("changeSeq").toValue(changeSeq)
+                .set("updatedAt").toValue(ChangeSequence.timeOf(changeSeq));
+    }
+
+    static Query tombstoneOf(String taskId) {
+        return new Query(Criteria.where("_id").is(taskId));
+    }
+
+    static Update tombstone(String userId, long changeSeq) {
+        return new Update()
+                .set("userId", userId)
+                .set("changeSeq", changeSeq)
+                .set("deletedAt", Instant.now());
+    }
+}
@@ -0,0 +1,78 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Reads scoped to one user go through ReadRouting, and may be served by a secondary that has the user's writes
+public interface TaskRepositoryCustom {
+
+    // Matching tasks in the filter's order, strictly after the cursor when one is given
+    List<Task> findPageByUserId(String userId, TaskFilter filter, TaskFields fields, TaskCursor after, int limit);
+
+    // Newest first, read with only the given fields
+    List<Task> findAllByUserId(String userId, TaskFields fields);
+
+    // The listed tasks the user owns, in no particular order
+    List<Task> findAllByUserId(String userId, Collection<ObjectId> ids);
+
+    // Backed by an open Mongo cursor; callers must close the stream
+    Stream<Task> streamByUserId(String userId, int batchSize);
+
+    // Sets completed on every listed task the user owns in the tasks collection; returns the tasks it completed,
+    // with only the fields task stats are counted from, as they were before
+    List<Task> completeAllByUserId(String userId, Collection<ObjectId> ids);
+
+    List<String> findIdsByUserId(String userId, Collection<ObjectId> ids);
+
+    // Open tasks due in [from, before)
+    long countOpenDueByUserId(String userId, LocalDateTime from, LocalDateTime before);
+
+    // Deletes leave tombstones for delta sync. Deletes the listed tasks the user owns from both collections and
+    // returns those it deleted, with only the fields task stats are counted from.
+    List<Task> deleteAllByUserId(String userId, Collection<ObjectId> ids);
+
+    Task deleteByUserId(String userId, String taskId);
+
+    // Single findAndModify scoped to the owner; each returns the updated task, or null when the
+    // task does not exist or belongs to someone else
+    Task toggleCompletedByUserId(String userId, String taskId);
+
+    Task toggleArchivedByUserId(String userId, String taskId);
+
+    // Returns the task as it was before the $set, so counted fields need no read of their own
+    Task setFieldsByUserId(String userId, String taskId, Map<String, Object> fields, long changeSeq);
+
+    List<Task> findChangedByUserId(String userId, long sinceSeq);
+
+    // The highest change sequence across the user's tasks, archived tasks and tombstones; 0 when there is none
+    long findLatestChangeByUserId(String userId);
+
+    List<TaskTombstone> findTombstonesByUserId(String userId, long sinceSeq);
+
+    // Archived tasks still in the tasks collection, newest first
+    List<Task> findArchivedPageByUserId(String userId, TaskCursor after, int limit);
+
+    // Tasks moved to the archive collection, newest first
+    List<Task> findColdPageByUserId(String userId, TaskCursor after, int limit);
+
+    // Moves an archived task back into the tasks collection, unarchived; null when the archive has no such task
+    Task restoreArchivedByUserId(String userId, String taskId);
+
+    // Removes a task from the archive collection, leaving a tombstone; null when there is none
+    Task deleteArchivedByUserId(String userId, String taskId);
+
+    // Copies up to limit tasks archived before the cutoff to the archive collection, then removes them from
+    // tasks unless they were written in between. Returns the tasks moved.
+    List<Task> moveArchived(Instant archivedBefore, int limit);
+
+    // Deletes up to limit tasks moved to the archive before the cutoff, leaving tombstones; returns them
+    List<Task> purgeArchived(Instant movedBefore, int limit);
+}
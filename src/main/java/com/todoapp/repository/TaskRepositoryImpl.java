@@ -0,0 +1,305 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+
+    @Override
+    public List<Task> findPageByUserId(String userId, TaskFilter filter, TaskFields fields, TaskCursor after,
+                                       int limit) {
+        return readRouting.read(userId, TaskQueries.page(userId, filter, fields, after, limit),
+                (operations, query) -> operations.find(query, Task.class));
+    }
+
+    @Override
+    public List<Task> findAllByUserId(String userId, TaskFields fields) {
+        return readRouting.read(userId, TaskQueries.newestFirst(userId, fields),
+                (operations, query) -> operations.find(query, Task.class));
+    }
+
+    @Override
+    public List<Task> findAllByUserId(String userId, Collection<ObjectId> ids) {
+        return readRouting.read(userId, TaskQueries.ownedBy(userId, ids),
+                (operations, query) -> operations.find(query, Task.class));
+    }
+
+    @Override
+    public Stream<Task> streamByUserId(String userId, int batchSize) {
+        return readRouting.stream(userId, TaskQueries.allByUser(userId, batchSize),
+                (operations, query) -> operations.stream(query, Task.class));
+    }
+
+    // Two round trips: the read is the stats' before image (the counted fields, nothing else), and one
+    // updateMany derives the outcome from its matched count. A count short of the tasks read means some were
+    // deleted in between; only then a third reads the _ids still carrying this write's sequence number, which
+    // are the ones it completed. TaskBulkWriteTest pins these counts.
+    @Override
+    public List<Task> completeAllByUserId(String userId, Collection<ObjectId> ids) {
+        List<Task> owned = mongoTemplate.find(TaskQueries.countedOwnedBy(userId, ids), Task.class);
+        if (owned.isEmpty()) {
+            return owned;
+        }
+        long changeSeq = ChangeSequence.next();
+        Update update = TaskQueries.stamp(Update.update("completed", true), changeSeq);
+        long matched = mongoTemplate.updateMulti(TaskQueries.ownedBy(userId, objectIdsOf(owned)), update, Task.class)
+                .getMatchedCount();
+        if (matched == owned.size()) {
+            return owned;
+        }
+        Set<String> completed = idsOf(mongoTemplate.find(
+                TaskQueries.stampedWith(userId, objectIdsOf(owned), changeSeq), Task.class));
+        return owned.stream().filter(task -> completed.contains(task.getId())).toList();
+    }
+
+    @Override
+    public List<String> findIdsByUserId(String userId, Collection<ObjectId> ids) {
+        return mongoTemplate.find(TaskQueries.idsOwnedBy(userId, ids), Task.class).stream()
+                .map(Task::getId)
+                .toList();
+    }
+
+    @Override
+    public long countOpenDueByUserId(String userId, LocalDateTime from, LocalDateTime before) {
+        return readRouting.read(userId, TaskQueries.openDueBetween(userId, from, before),
+                (operations, query) -> operations.count(query, Task.class));
+    }
+
+    // From tasks first, then from the archive for the ids not deleted there: tasks already moved, and any the
+    // archiver moves in between. Copies the archiver left of the tasks deleted from tasks go as well.
+    // Four round trips when every task is hot: read, deleteMany, the archive copies' deleteMany and the
+    // tombstones' bulk write. The copies cannot be folded into the archive's own delete, whose count has to
+    // match the tasks it read. Tasks already moved cost a read and a deleteMany of the archive on top.
+    @Override
+    public List<Task> deleteAllByUserId(String userId, Collection<ObjectId> ids) {
+        List<Task> deleted = new ArrayList<>(deleteAll(userId, ids, mongoTemplate.getCollectionName(Task.class)));
+        if (!deleted.isEmpty()) {
+            mongoTemplate.remove(TaskQueries.ownedBy(userId, objectIdsOf(deleted)), Task.class,
+                    TaskQueries.ARCHIVE_COLLECTION);
+        }
+        Set<String> deletedIds = idsOf(deleted);
+        List<ObjectId> rest = ids.stream().filter(id -> !deletedIds.contains(id.toHexString())).toList();
+        if (!rest.isEmpty()) {
+            deleted.addAll(deleteAll(userId, rest, TaskQueries.ARCHIVE_COLLECTION));
+        }
+        if (!deleted.isEmpty()) {
+            writeTombstones(userId, deleted.stream().map(Task::getId).toList());
+        }
+        return deleted;
+    }
+
+    // A deleted count short of the tasks read means some were deleted or moved in between. Those another delete
+    // got to first already have its tombstone, and moved ones are now in the archive; the rest were deleted here.
+    // deleteMany does not say which it removed, so only a short count pays for those two reads.
+    private List<Task> deleteAll(String userId, Collection<ObjectId> ids, String collection) {
+        List<Task> owned = mongoTemplate.find(TaskQueries.countedOwnedBy(userId, ids), Task.class, collection);
+        if (owned.isEmpty()) {
+            return owned;
+        }
+        List<ObjectId> ownedIds = objectIdsOf(owned);
+        long removed = mongoTemplate.remove(TaskQueries.ownedBy(userId, ownedIds), Task.class, collection)
+                .getDeletedCount();
+        if (removed == owned.size()) {
+            return owned;
+        }
+        List<String> taskIds = owned.stream().map(Task::getId).toList();
+        Set<String> elsewhere = idsOf(mongoTemplate.find(TaskQueries.byIds(taskIds), Task.class,
+                TaskQueries.ARCHIVE_COLLECTION));
+        mongoTemplate.find(TaskQueries.byIds(taskIds), TaskTombstone.class)
+                .forEach(tombstone -> elsewhere.add(tombstone.getId()));
+        return owned.stream().filter(task -> !elsewhere.contains(task.getId())).toList();
+    }
+
+    // Along with any copy an archiver pass interrupted between copying and removing it left in the archive
+    @Override
+    public Task deleteByUserId(String userId, String taskId) {
+        Task deleted = mongoTemplate.findAndRemove(TaskQueries.ownedBy(userId, taskId), Task.class);
+        if (deleted != null) {
+            mongoTemplate.remove(TaskQueries.ownedBy(userId, taskId), Task.class, TaskQueries.ARCHIVE_COLLECTION);
+            writeTombstones(userId, List.of(deleted.getId()));
+        }
+        return deleted;
+    }
+
+    @Override
+    public Task toggleCompletedByUserId(String userId, String taskId) {
+        return findAndModifyOwned(userId, taskId, TaskQueries.negate("completed", ChangeSequence.next()));
+    }
+
+    @Override
+    public Task toggleArchivedByUserId(String userId, String taskId) {
+        return findAndModifyOwned(userId, taskId, TaskQueries.negate("archived", ChangeSequence.next()));
+    }
+
+    @Override
+    public Task setFieldsByUserId(String userId, String taskId, Map<String, Object> fields, long changeSeq) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return mongoTemplate.findAndModify(TaskQueries.ownedBy(userId, taskId), TaskQueries.stamp(update, changeSeq),
+                TaskQueries.RETURN_OLD, Task.class);
+    }
+
+    @Override
+    public List<Task> findChangedByUserId(String userId, long sinceSeq) {
+        return mongoTemplate.find(TaskQueries.changedSince(userId, sinceSeq), Task.class);
+    }
+
+    // Read from the primary, like delta sync, so lists are cached and tagged under the latest change
+    @Override
+    public long findLatestChangeByUserId(String userId) {
+        Query query = TaskQueries.latestChange(userId);
+        long latest = 0;
+        for (String collection : List.of(mongoTemplate.getCollectionName(Task.class),
+                TaskQueries.ARCHIVE_COLLECTION, mongoTemplate.getCollectionName(TaskTombstone.class))) {
+            Document found = mongoTemplate.findOne(query, Document.class, collection);
+            latest = Math.max(latest, TaskQueries.changeSeqOf(found));
+        }
+        return latest;
+    }
+
+    @Override
+    public List<TaskTombstone> findTombstonesByUserId(String userId, long sinceSeq) {
+        return mongoTemplate.find(TaskQueries.changedSince(userId, sinceSeq), TaskTombstone.class);
+    }
+
+    @Override
+    public List<Task> findArchivedPageByUserId(String userId, TaskCursor after, int limit) {
+        return readRouting.read(userId, TaskQueries.archivedNewestFirst(userId, after, limit),
+                (operations, query) -> operations.find(query, Task.class));
+    }
+
+    @Override
+    public List<Task> findColdPageByUserId(String userId, TaskCursor after, int limit) {
+        return readRouting.read(userId, TaskQueries.page(userId, TaskFilter.NONE, TaskFields.ALL, after, limit),
+                (operations, query) -> operations.find(query, Task.class, TaskQueries.ARCHIVE_COLLECTION));
+    }
+
+    // Written to tasks before it leaves the archive, so a failure in between leaves a copy in both rather than
+    // in neither; the archiver drops archive copies of tasks that are hot again
+    @Override
+    public Task restoreArchivedByUserId(String userId, String taskId) {
+        Task task = mongoTemplate.findOne(TaskQueries.ownedBy(userId, taskId), Task.class,
+                TaskQueries.ARCHIVE_COLLECTION);
+        if (task == null) {
+            return null;
+        }
+        task.setArchived(false);
+        task.setArchivedAt(null);
+        task.setUpdatedAt(Instant.now());
+        task.setChangeSeq(ChangeSequence.next());
+        Task restored = mongoTemplate.save(task);
+        mongoTemplate.remove(TaskQueries.ownedBy(userId, taskId), Task.class, TaskQueries.ARCHIVE_COLLECTION);
+        return restored;
+    }
+
+    @Override
+    public Task deleteArchivedByUserId(String userId, String taskId) {
+        Task deleted = mongoTemplate.findAndRemove(TaskQueries.ownedBy(userId, taskId), Task.class,
+                TaskQueries.ARCHIVE_COLLECTION);
+        if (deleted != null) {
+            writeTombstones(userId, List.of(deleted.getId()));
+        }
+        return deleted;
+    }
+
+    // Copy, remove, then reconcile: a task written or deleted while it was being copied is not removed here, and
+    // its copy is dropped again. Every step is idempotent, so a batch interrupted anywhere is finished by the next.
+    @Override
+    public List<Task> moveArchived(Instant archivedBefore, int limit) {
+        List<Task> tasks = mongoTemplate.find(TaskQueries.archivedBefore(archivedBefore, limit), Task.class);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        // Copies carry a new sequence number: the task leaving the lists has to change their version
+        List<Query> unchanged = tasks.stream().map(TaskQueries::unchangedSince).toList();
+        long changeSeq = ChangeSequence.next();
+        Instant now = Instant.now();
+        BulkOperations copies = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class,
+                TaskQueries.ARCHIVE_COLLECTION);
+        for (Task task : tasks) {
+            task.setArchivedAt(now);
+            task.setChangeSeq(changeSeq);
+            copies.replaceOne(TaskQueries.byId(task.getId()), task, FindAndReplaceOptions.options().upsert());
+        }
+        copies.execute();
+
+        // One at a time rather than in bulk, so the reconcile knows which removals were this pass's own: a task
+        // gone from tasks may have been deleted by its owner instead, and its copy must not outlive it
+        List<Task> moved = new ArrayList<>();
+        List<String> notMoved = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (mongoTemplate.remove(unchanged.get(i), Task.class).getDeletedCount() > 0) {
+                moved.add(task);
+            } else {
+                notMoved.add(task.getId());
+            }
+        }
+        if (!notMoved.isEmpty()) {
+            mongoTemplate.remove(TaskQueries.byIds(notMoved), Task.class, TaskQueries.ARCHIVE_COLLECTION);
+        }
+        return moved;
+    }
+
+    @Override
+    public List<Task> purgeArchived(Instant movedBefore, int limit) {
+        List<Task> tasks = mongoTemplate.find(TaskQueries.movedBefore(movedBefore, limit), Task.class,
+                TaskQueries.ARCHIVE_COLLECTION);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        mongoTemplate.remove(TaskQueries.byIds(tasks.stream().map(Task::getId).toList()), Task.class,
+                TaskQueries.ARCHIVE_COLLECTION);
+        tasks.stream()
+                .collect(Collectors.groupingBy(Task::getUserId, Collectors.mapping(Task::getId, Collectors.toList())))
+                .forEach(this::writeTombstones);
+        return tasks;
+    }
+
+    private static List<ObjectId> objectIdsOf(List<Task> tasks) {
+        return tasks.stream().map(task -> new ObjectId(task.getId())).toList();
+    }
+
+    private static Set<String> idsOf(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private Task findAndModifyOwned(String userId, String taskId, UpdateDefinition update) {
+        return mongoTemplate.findAndModify(TaskQueries.ownedBy(userId, taskId), update, TaskQueries.RETURN_NEW,
+                Task.class);
+    }
+
+    // Upserted, so a delete racing another delete of the same task cannot fail on the tombstone
+    private void writeTombstones(String userId, List<String> taskIds) {
+        Update tombstone = TaskQueries.tombstone(userId, ChangeSequence.next());
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TaskTombstone.class);
+        for (String taskId : taskIds) {
+            operations.upsert(TaskQueries.tombstoneOf(taskId), tombstone);
+        }
+        operations.execute();
+    }
+}
@@ -0,0 +1,84 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+// Orders a task list can be read in. Each is a keyset on (field, _id); missing values sort lowest, as in
+// Mongo: tasks without a due date come first by dueDate, tasks without a rank come last by priority.
+public enum TaskSort {
+
+    CREATED_AT("createdAt", Sort.Direction.DESC, Task::getCreatedAt),
+    DUE_DATE("dueDate", Sort.Direction.ASC, Task::getDueDate),
+    PRIORITY("priorityRank", Sort.Direction.DESC, Task::getPriorityRank);
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Function<Task, Object> position;
+
+    TaskSort(String field, Sort.Direction direction, Function<Task, Object> position) {
+        this.field = field;
+        this.direction = direction;
+        this.position = position;
+    }
+
+    // Accepts the API names createdAt, dueDate and priority; absent means newest first
+    public static TaskSort parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return CREATED_AT;
+        }
+        return switch (value) {
+            case "createdAt" -> CREATED_AT;
+            case "dueDate" -> DUE_DATE;
+            case "priority" -> PRIORITY;
+            default -> throw new BadRequestException("Unknown sort: " + value);
+        };
+    }
+
+    String field() {
+        return field;
+    }
+
+    boolean ascending() {
+        return direction.isAscending();
+    }
+
+    Sort toSort() {
+        return Sort.by(direction, field).and(Sort.by(direction, "_id"));
+    }
+
+    Object positionOf(Task task) {
+        return position.apply(task);
+    }
+
+    // A missing value is "null" in every order, legacy tasks without createdAt included
+    String encodePosition(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        return switch (this) {
+            case CREATED_AT -> Long.toString(((Instant) value).toEpochMilli());
+            case DUE_DATE, PRIORITY -> value.toString();
+        };
+    }
+
+    Object decodePosition(String value) {
+        if ("null".equals(value)) {
+            return null;
+        }
+        try {
+            return switch (this) {
+                case CREATED_AT -> Instant.ofEpochMilli(Long.parseLong(value));
+                case DUE_DATE -> LocalDateTime.parse(value);
+                case PRIORITY -> Integer.valueOf(value);
+            };
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
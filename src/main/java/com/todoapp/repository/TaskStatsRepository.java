@@ -0,0 +1,9 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskStatsRepository extends MongoRepository<TaskStats, String>, TaskStatsRepositoryCustom {
+}
@@ -0,0 +1,19 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskStats;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface TaskStatsRepositoryCustom {
+
+    // Through ReadRouting, unlike findById
+    Optional<TaskStats> findForUser(String userId);
+
+    // One $inc of the given counters (dotted paths); users without a stats document are left alone,
+    // their first read rebuilds it
+    void increment(String userId, Map<String, Long> deltas);
+
+    // Recounts the user's tasks with aggregations and replaces the stats document
+    TaskStats rebuild(String userId);
+}
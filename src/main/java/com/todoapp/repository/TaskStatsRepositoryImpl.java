@@ -0,0 +1,91 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskStats;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+
+@RequiredArgsConstructor
+public class TaskStatsRepositoryImpl implements TaskStatsRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+
+    @Override
+    public Optional<TaskStats> findForUser(String userId) {
+        return Optional.ofNullable(readRouting.read(userId, new Query(Criteria.where("_id").is(userId)),
+                (operations, query) -> operations.findOne(query, TaskStats.class)));
+    }
+
+    @Override
+    public void increment(String userId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), update, TaskStats.class);
+    }
+
+    // Both aggregations run on the userId-prefixed task indexes; writes that land between them and the
+    // save are lost to the rebuilt document until the next rebuild. Tasks in the archive collection are
+    // counted too; none of them are open.
+    @Override
+    public TaskStats rebuild(String userId) {
+        TaskStats stats = new TaskStats(userId);
+        for (String collection : List.of(mongoTemplate.getCollectionName(Task.class),
+                TaskQueries.ARCHIVE_COLLECTION)) {
+            mongoTemplate.aggregate(counts(userId), collection, Document.class).forEach(row -> addCount(stats, row));
+        }
+        mongoTemplate.aggregate(openDue(userId), Task.class, Document.class).forEach(row -> addOpenDue(stats, row));
+        stats.setRebuiltAt(Instant.now());
+        return mongoTemplate.save(stats);
+    }
+
+    // Shared with ReactiveTaskStatsRepositoryImpl
+    static Aggregation counts(String userId) {
+        return Aggregation.newAggregation(
+                match(Criteria.where("userId").is(userId)),
+                group("completed", "archived", "priority").count().as("count"));
+    }
+
+    static Aggregation openDue(String userId) {
+        return Aggregation.newAggregation(
+                match(Criteria.where("userId").is(userId).and("completed").is(false).and("archived").is(false)
+                        .and("dueDate").ne(null)),
+                project().and(DateOperators.dateOf("dueDate").toString("%Y-%m-%d")).as("day"),
+                group("day").count().as("count"));
+    }
+
+    static void addCount(TaskStats stats, Document row) {
+        Document key = row.get("_id", Document.class);
+        long count = ((Number) row.get("count")).longValue();
+        stats.setTotal(stats.getTotal() + count);
+        if (Boolean.TRUE.equals(key.getBoolean("completed"))) {
+            stats.setCompleted(stats.getCompleted() + count);
+        }
+        if (Boolean.TRUE.equals(key.getBoolean("archived"))) {
+            stats.setArchived(stats.getArchived() + count);
+        }
+        stats.getPriorities().merge(TaskStats.priorityKey(key.getString("priority")), count, Long::sum);
+    }
+
+    static void addOpenDue(TaskStats stats, Document row) {
+        stats.getOpenDue().put(row.getString("_id"), ((Number) row.get("count")).longValue());
+    }
+}
@@ -0,0 +1,12 @@
+package com.todoapp.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Principal built from token claims alone. getName() stays the username because tasks are owned by username.
+public record AuthenticatedUser(String id, String username) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
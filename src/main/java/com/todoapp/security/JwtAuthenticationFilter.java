@@ -1,28 +1,47 @@
 package com.todoapp.security;
 
-import com.todoapp.repository.UserRepository;
+import com.todoapp.diagnostics.AccessLogFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 //import org.springframework.security.web.authentication.WebSecurityConfigurerAdapter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 @Component
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final UserStateCache userStateCache;
+    private final Timer verifyTimer;
+    private final Timer lookupTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserStateCache userStateCache, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userStateCache = userStateCache;
+        this.verifyTimer = phaseTimer(meterRegistry, "verify");
+        this.lookupTimer = phaseTimer(meterRegistry, "lookup");
+    }
+
+    // verify: token signature and claims; lookup: user state for the token's subject
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("auth.jwt.filter")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,38 +59,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtUtil.extractUsername(jwt);
+
+            // Signature is verified once per distinct token, repeat requests are a cache hit
+            final Claims claims = verifyTimer.record(() -> jwtUtil.verifyToken(jwt));
+            final String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // User existence, disabled flag and token version come from the local cache
+                UserStateCache.UserState state = lookupTimer.record(() -> userStateCache.get(username));
+                Integer tokenVersion = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Integer.class);
 
-                if (jwtUtil.validateToken(jwt)) {
-                    // Load user from database
-                    com.todoapp.model.User user = userRepository.findByUsername(username)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-
-                    // Create UserDetails
-                    UserDetails userDetails = User.builder()
-                            .username(user.getUsername())
-                            .password(user.getPassword())
-                            .authorities(new ArrayList<>())
-                            .build();
-
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                    System.out.println("✅ JWT Authentication successful for user: " + username);
+                if (!state.accepts(tokenVersion != null ? tokenVersion : 0)) {
+                    throw new RuntimeException("User not found, disabled or token revoked");
                 }
+
+                // Tokens issued before the uid claim existed fall back to the cached id
+                String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+                AuthenticatedUser principal = new AuthenticatedUser(userId != null ? userId : state.id(), username);
+
+                // Create authentication token
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                principal,
+                                null,
+                                state.authorities()
+                        );
+
+                // Set authentication in security context
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(AccessLogFilter.USER_ATTRIBUTE, username);
             }
         } catch (Exception e) {
-            System.out.println("❌ JWT Authentication failed: " + e.getMessage());
+            log.debug("JWT authentication failed: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
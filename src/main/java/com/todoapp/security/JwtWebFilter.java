@@ -0,0 +1,64 @@
+package com.todoapp.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+// Reactive counterpart of JwtAuthenticationFilter. The authentication travels in the Reactor context
+// instead of a thread-local; a missing or rejected token lets the request through unauthenticated.
+// Not a bean: WebFlux would also add every WebFilter bean to the global chain, outside security.
+@RequiredArgsConstructor
+@Slf4j
+public class JwtWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserStateCache userStateCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.defer(() -> authenticate(authHeader.substring(7)))
+                .map(ReactiveSecurityContextHolder::withAuthentication)
+                .onErrorResume(e -> {
+                    log.debug("JWT authentication failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    private Mono<Authentication> authenticate(String jwt) {
+        // Signature is verified once per distinct token, repeat requests are a cache hit
+        final Claims claims = jwtUtil.verifyToken(jwt);
+        final String username = claims.getSubject();
+        if (username == null) {
+            return Mono.empty();
+        }
+
+        Integer tokenVersion = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Integer.class);
+        return userStateCache.get(username).map(state -> {
+            if (!state.accepts(tokenVersion != null ? tokenVersion : 0)) {
+                throw new IllegalStateException("User not found, disabled or token revoked");
+            }
+
+            // Tokens issued before the uid claim existed fall back to the cached id
+            String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+            AuthenticatedUser principal = new AuthenticatedUser(userId != null ? userId : state.id(), username);
+            return new UsernamePasswordAuthenticationToken(principal, null, state.authorities());
+        });
+    }
+}
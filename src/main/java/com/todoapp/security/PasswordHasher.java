@@ -0,0 +1,150 @@
+package com.todoapp.security;
+
+import com.todoapp.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Runs BCrypt on its own CPU-sized pool so a burst of logins cannot take request threads away from every
+// other endpoint. The queue is bounded: once it is full, callers fail fast with ServiceOverloadedException
+// instead of waiting behind seconds of queued hashing.
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    private static final int BATCH_CHUNK_SIZE = 8;
+    private static final List<String> OPERATIONS = List.of("encode", "matches", "encode-batch");
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.hashing.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${auth.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private int poolSize;
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+    // By operation, registered once so the hot path only records
+    private Map<String, Timer> durations;
+    private Map<String, Counter> rejections;
+
+    @PostConstruct
+    public void init() {
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hasher-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.hashing.queue.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.durations = OPERATIONS.stream().collect(Collectors.toUnmodifiableMap(operation -> operation,
+                operation -> Timer.builder("auth.hashing.duration")
+                        .tag("operation", operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+        this.rejections = OPERATIONS.stream().collect(Collectors.toUnmodifiableMap(operation -> operation,
+                operation -> Counter.builder("auth.hashing.rejected")
+                        .tag("operation", operation)
+                        .register(meterRegistry)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Blocks until every password is hashed. Batches go through the same pool in small chunks with at most one
+    // chunk per thread queued at a time, so logins arriving meanwhile still get in between them; a full queue
+    // delays the batch rather than failing it.
+    public List<String> encodeAll(List<String> rawPasswords) {
+        String[] hashes = new String[rawPasswords.size()];
+        Semaphore slots = new Semaphore(poolSize);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < hashes.length; from += BATCH_CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + BATCH_CHUNK_SIZE, hashes.length);
+            slots.acquireUninterruptibly();
+            CompletableFuture<Void> chunk = submitWhenAccepted(() -> {
+                for (int i = start; i < end; i++) {
+                    hashes[i] = passwordEncoder.encode(rawPasswords.get(i));
+                }
+                return null;
+            });
+            chunks.add(chunk.whenComplete((result, error) -> slots.release()));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        return Arrays.asList(hashes);
+    }
+
+    // True when the stored hash was made with a lower cost factor than the current one
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submitWhenAccepted(Supplier<T> work) {
+        while (true) {
+            try {
+                return submit("encode-batch", work);
+            } catch (ServiceOverloadedException e) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> work) {
+        Timer duration = durations.get(operation);
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return duration.record(work);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.get(operation).increment();
+            throw new ServiceOverloadedException("Too many sign-in requests, try again shortly", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.todoapp.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Reactive counterpart of RateLimitFilter, placed after JwtWebFilter. Not a bean, for the same reason.
+@RequiredArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RequestRateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!rateLimiter.isEnabled() || path.startsWith("/actuator/")) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String address = rateLimiter.clientAddress(remoteAddress != null ? remoteAddress.getHostString() : "unknown",
+                request.getHeaders().get("X-Forwarded-For"));
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> RequestRateLimiter.clientOf(context.getAuthentication(), address))
+                .defaultIfEmpty(RequestRateLimiter.clientOf(null, address))
+                .flatMap(client -> {
+                    long waitNanos = rateLimiter.tryAcquire(RequestRateLimiter.Route.of(path), client, 1);
+                    return waitNanos > 0 ? reject(exchange.getResponse(), waitNanos) : chain.filter(exchange);
+                });
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, long waitNanos) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(RequestRateLimiter.retryAfterSeconds(waitNanos)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory()
+                .wrap(RequestRateLimiter.REJECTED_BODY.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,55 @@
+package com.todoapp.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todoapp.repository.ReactiveUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+// UserStateCache for the reactive stack. Loads are non-blocking, and concurrent requests for the
+// same user share one in-flight lookup.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserStateCache {
+
+    private final ReactiveUserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private AsyncCache<String, UserStateCache.UserState> states;
+
+    @PostConstruct
+    public void init() {
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, states.synchronous(), "user.state");
+    }
+
+    public Mono<UserStateCache.UserState> get(String username) {
+        return Mono.fromFuture(() -> states.get(username, (key, executor) -> userRepository.findByUsername(key)
+                .map(UserStateCache.UserState::of)
+                .defaultIfEmpty(UserStateCache.UserState.MISSING)
+                .toFuture()));
+    }
+
+    public void invalidate(String username) {
+        states.synchronous().invalidate(username);
+    }
+}
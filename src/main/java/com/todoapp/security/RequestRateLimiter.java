@@ -0,0 +1,293 @@
+package com.todoapp.security;
+
+import com.todoapp.exception.RateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Token buckets per route and client (username when authenticated, client address otherwise). Each bucket is
+// one AtomicLong holding the time it will next be full (GCRA), so taking tokens is a single CAS and refill
+// needs no timer. A full bucket carries no state and is dropped by the idle sweep; keys live in striped maps
+// capped at max-keys per route, and a client arriving at a stripe that is still full after a sweep shares
+// that stripe's overflow bucket rather than growing the map.
+//
+// Behind a load balancer or ingress every request arrives from a proxy address. The client address is then
+// taken from X-Forwarded-For, but only from hops added by trusted-proxies: the rightmost entry not itself a
+// trusted proxy is the client, and anything left of it was written by the client and is ignored.
+@Component
+@RequiredArgsConstructor
+public class RequestRateLimiter {
+
+    private static final int STRIPES = 16;
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9.]+|[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    static final String REJECTED_BODY = "{\"error\":\"Too many requests, try again later\"}";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${todos.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${todos.rate-limit.idle-sweep-seconds:60}")
+    private long idleSweepSeconds;
+
+    @Value("${todos.rate-limit.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    private final Map<Route, Limiter> limiters = new EnumMap<>(Route.class);
+    private List<IpAddressMatcher> proxies = List.of();
+    private ScheduledExecutorService sweeper;
+
+    public enum Route {
+        // Everything not listed below, one token per request
+        DEFAULT("default"),
+        // /api/login and /api/register: unauthenticated and BCrypt-bound, so much stricter
+        LOGIN("login"),
+        // Bulk endpoints, charged one token per task id on top of the request itself
+        BULK("bulk");
+
+        private final String key;
+
+        Route(String key) {
+            this.key = key;
+        }
+
+        static Route of(String path) {
+            return path.equals("/api/login") || path.equals("/api/register") ? LOGIN : DEFAULT;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        this.proxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        for (Route route : Route.values()) {
+            String prefix = "todos.rate-limit." + route.key + ".";
+            long capacity = environment.getRequiredProperty(prefix + "capacity", Long.class);
+            double refillPerSecond = environment.getRequiredProperty(prefix + "refill-per-second", Double.class);
+            limiters.put(route, new Limiter(route, capacity, refillPerSecond, Math.max(1, maxKeys / STRIPES)));
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, idleSweepSeconds, idleSweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Takes cost tokens from the client's bucket; returns 0 when allowed, otherwise the nanoseconds until
+    // they would be. Costs above the bucket's capacity take the whole bucket.
+    public long tryAcquire(Route route, String client, long cost) {
+        if (!enabled || cost <= 0) {
+            return 0;
+        }
+        return limiters.get(route).tryAcquire(client, cost);
+    }
+
+    // For limits applied past the filter: answered with 429 and Retry-After by the exception handler
+    public void acquire(Route route, String client, long cost) {
+        long waitNanos = tryAcquire(route, client, cost);
+        if (waitNanos > 0) {
+            throw new RateLimitedException("Too many requests, try again later", retryAfterSeconds(waitNanos));
+        }
+    }
+
+    // The address unauthenticated requests are limited by; forwardedFor holds the X-Forwarded-For values in order
+    public String clientAddress(String remoteAddress, List<String> forwardedFor) {
+        if (!isTrustedProxy(remoteAddress) || forwardedFor == null) {
+            return remoteAddress;
+        }
+        String client = remoteAddress;
+        List<String> hops = forwardedFor.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(hop -> !hop.isEmpty())
+                .toList();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            client = hops.get(i);
+            if (!isTrustedProxy(client)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    // Only IP literals are matched, so a forged hop can never trigger a DNS lookup
+    private boolean isTrustedProxy(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : proxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Authenticated requests are limited per user, whatever address they come from; the rest per address
+    static String clientOf(Authentication authentication, String remoteAddress) {
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? userClient(user.getName())
+                : "ip:" + remoteAddress;
+    }
+
+    public static String userClient(String username) {
+        return "user:" + username;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        limiters.values().forEach(limiter -> limiter.sweep(now));
+    }
+
+    private static int stripeOf(String client) {
+        int hash = client.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static double size(Stripe[] stripes) {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private final class Limiter {
+
+        private final long intervalNanos;
+        private final long capacity;
+        private final long burstNanos;
+        private final Stripe[] stripes = new Stripe[STRIPES];
+        private final Counter allowed;
+        private final Counter rejected;
+        private final Counter overflowed;
+
+        Limiter(Route route, long capacity, double refillPerSecond, int keysPerStripe) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            this.capacity = capacity;
+            this.burstNanos = capacity * intervalNanos;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(keysPerStripe);
+            }
+            this.allowed = decisions(route, "allowed");
+            this.rejected = decisions(route, "rejected");
+            this.overflowed = Counter.builder("ratelimit.overflow")
+                    .description("Clients limited through a shared bucket because their stripe was full")
+                    .tag("route", route.key)
+                    .register(meterRegistry);
+            Gauge.builder("ratelimit.buckets", stripes, RequestRateLimiter::size)
+                    .tag("route", route.key)
+                    .register(meterRegistry);
+        }
+
+        private Counter decisions(Route route, String outcome) {
+            return Counter.builder("ratelimit.requests")
+                    .tag("route", route.key)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        long tryAcquire(String client, long cost) {
+            long now = System.nanoTime();
+            long increment = Math.min(cost, capacity) * intervalNanos;
+            AtomicLong fullAt = stripes[stripeOf(client)].bucket(client, now, this);
+            while (true) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + increment;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    rejected.increment();
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+
+        void sweep(long now) {
+            for (Stripe stripe : stripes) {
+                stripe.evictFull(now);
+            }
+        }
+    }
+
+    private static final class Stripe {
+
+        private final int maxKeys;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+
+        Stripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        AtomicLong bucket(String client, long now, Limiter limiter) {
+            AtomicLong bucket = buckets.get(client);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeys) {
+                evictFull(now);
+                if (buckets.size() >= maxKeys) {
+                    limiter.overflowed.increment();
+                    return overflow;
+                }
+            }
+            return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+
+        // A request racing the removal of its bucket may go uncharged; it is still a full bucket's worth at most
+        void evictFull(long now) {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+}
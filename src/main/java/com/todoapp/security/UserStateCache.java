@@ -0,0 +1,88 @@
+package com.todoapp.security;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Small local view of the user fields the auth path needs, so authenticating a request does no database I/O.
+// Entries are invalidated whenever the application changes a user; the TTL bounds changes made outside the app.
+// On virtual threads a miss is loaded on its own virtual thread: loading inside the cache's map lock would pin
+// the caller's carrier thread for the whole Mongo read.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${auth.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private AsyncLoadingCache<String, UserState> states;
+
+    @PostConstruct
+    public void init() {
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .executor(Threading.VIRTUAL.isActive(environment) ? new VirtualThreadTaskExecutor("user-state-") : Runnable::run)
+                .buildAsync(username -> userRepository.findByUsername(username)
+                        .map(UserState::of)
+                        .orElse(UserState.MISSING));
+        CaffeineCacheMetrics.monitor(meterRegistry, states, "user.state");
+    }
+
+    public UserState get(String username) {
+        return states.get(username).join();
+    }
+
+    public void invalidate(String username) {
+        states.synchronous().invalidate(username);
+    }
+
+    public record UserState(String id, boolean disabled, int tokenVersion, boolean admin) {
+
+        private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+        static final UserState MISSING = new UserState(null, false, 0, false);
+
+        static UserState of(User user) {
+            return new UserState(user.getId(), user.isDisabled(), user.getTokenVersion(), user.isAdmin());
+        }
+
+        public boolean exists() {
+            return id != null;
+        }
+
+        public boolean accepts(int tokenVersion) {
+            return exists() && !disabled && this.tokenVersion == tokenVersion;
+        }
+
+        public List<GrantedAuthority> authorities() {
+            return admin ? ADMIN_AUTHORITIES : List.of();
+        }
+    }
+}
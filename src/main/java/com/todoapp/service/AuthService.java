@@ -5,44 +5,52 @@ package com.todoapp.service;
 import com.todoapp.dto.AuthResponse;
 import com.todoapp.dto.LoginRequest;
 import com.todoapp.dto.RegisterRequest;
+import com.todoapp.exception.ServiceOverloadedException;
 import com.todoapp.model.User;
 import com.todoapp.repository.UserRepository;
 import com.todoapp.security.JwtUtil;
+import com.todoapp.security.PasswordHasher;
+import com.todoapp.security.UserStateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final UserStateCache userStateCache;
 
     public AuthResponse register(RegisterRequest request) {
         try {
-            log.info("Registration attempt for username: {}", request.getUsername());
-
-            if (userRepository.existsByUsername(request.getUsername().trim())) {
-                log.warn("Username already exists: {}", request.getUsername());
-                return new AuthResponse(false, "Username already exists");
-            }
+            log.debug("Registration attempt for username: {}", request.getUsername());
 
             User user = new User();
             user.setUsername(request.getUsername().trim());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHasher.encode(request.getPassword()).join());
             user.setCreatedAt(LocalDateTime.now());
 
-            userRepository.save(user);
+            // A single insert; the unique username index rejects names that are taken
+            userRepository.insert(user);
+            userStateCache.invalidate(user.getUsername());
 
-            log.info("User registered successfully: {}", request.getUsername());
+            log.debug("User registered successfully: {}", request.getUsername());
             return new AuthResponse(true, "Registration successful!");
 
+        } catch (DuplicateKeyException e) {
+            log.debug("Username already exists: {}", request.getUsername());
+            return new AuthResponse(false, "Username already exists");
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Registration error: ", e);
             return new AuthResponse(false, "Registration failed");
@@ -51,24 +59,25 @@ public class AuthService {
 
     public AuthResponse login(LoginRequest request) {
         try {
-            log.info("Login attempt for username: {}", request.getUsername());
+            log.debug("Login attempt for username: {}", request.getUsername());
 
             User user = userRepository.findByUsername(request.getUsername().trim())
                     .orElse(null);
 
             if (user == null) {
-                log.warn("User not found: {}", request.getUsername());
+                log.debug("User not found: {}", request.getUsername());
                 return new AuthResponse(false, "Invalid credentials");
             }
 
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                log.warn("Password mismatch for user: {}", request.getUsername());
+            if (!passwordHasher.matches(request.getPassword(), user.getPassword()).join()) {
+                log.debug("Password mismatch for user: {}", request.getUsername());
                 return new AuthResponse(false, "Invalid credentials");
             }
 
-            String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+            rehashIfOutdated(user, request.getPassword());
+            String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getTokenVersion());
 
-            log.info("Login successful for user: {}", request.getUsername());
+            log.debug("Login successful for user: {}", request.getUsername());
             AuthResponse response = new AuthResponse();
             response.setSuccess(true);
             response.setToken(token);
@@ -76,9 +85,28 @@ public class AuthService {
 
             return response;
 
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Login error: ", e);
             return new AuthResponse(false, "Login failed");
         }
     }
+
+    // Off the response path; skipped when the hashing pool is busy, the next login tries again
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            passwordHasher.encode(rawPassword)
+                    .thenAccept(hash -> userRepository.replacePassword(user.getId(), user.getPassword(), hash))
+                    .exceptionally(e -> {
+                        log.warn("Password rehash failed for user: {}", user.getUsername(), e);
+                        return null;
+                    });
+        } catch (ServiceOverloadedException e) {
+            log.debug("Hashing pool busy, password rehash deferred for user: {}", user.getUsername());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Tasks written before priorityRank existed cannot be sorted by priority until they have one. One
+// updateMany per priority value, matching only documents still missing the field, so later starts are no-ops.
+// Runs on its own thread so startup does not wait for Mongo.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityRankBackfill {
+
+    private static final List<String> PRIORITIES = List.of("high", "medium", "low");
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::backfill, "priority-rank-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfill() {
+        try {
+            long updated = 0;
+            for (String priority : PRIORITIES) {
+                Query missing = new Query(Criteria.where("priority").is(priority).and("priorityRank").exists(false));
+                updated += mongoTemplate.updateMulti(missing, Update.update("priorityRank", Task.rankOf(priority)),
+                        Task.class).getModifiedCount();
+            }
+            if (updated > 0) {
+                log.info("Backfilled priorityRank on {} tasks", updated);
+            }
+        } catch (Exception e) {
+            log.warn("priorityRank backfill failed; priority sort may misorder older tasks until it succeeds", e);
+        }
+    }
+}
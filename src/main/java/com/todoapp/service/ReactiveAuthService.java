@@ -0,0 +1,103 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.AuthResponse;
+import com.todoapp.dto.LoginRequest;
+import com.todoapp.dto.RegisterRequest;
+import com.todoapp.exception.ServiceOverloadedException;
+import com.todoapp.model.User;
+import com.todoapp.repository.ReactiveUserRepository;
+import com.todoapp.security.JwtUtil;
+import com.todoapp.security.PasswordHasher;
+import com.todoapp.security.ReactiveUserStateCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// AuthService for the "reactive" profile. BCrypt is deliberately slow CPU work, so hashing and
+// matching run on the PasswordHasher pool rather than an event-loop thread.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAuthService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserStateCache userStateCache;
+
+    public Mono<AuthResponse> register(RegisterRequest request) {
+        String username = request.getUsername().trim();
+        log.debug("Registration attempt for username: {}", request.getUsername());
+
+        return Mono.fromFuture(() -> passwordHasher.encode(request.getPassword()))
+                .flatMap(hash -> {
+                    User user = new User();
+                    user.setUsername(username);
+                    user.setPassword(hash);
+                    user.setCreatedAt(LocalDateTime.now());
+                    // A single insert; the unique username index rejects names that are taken
+                    return userRepository.insert(user);
+                })
+                .map(user -> {
+                    userStateCache.invalidate(user.getUsername());
+                    log.debug("User registered successfully: {}", request.getUsername());
+                    return new AuthResponse(true, "Registration successful!");
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    log.debug("Username already exists: {}", request.getUsername());
+                    return Mono.just(new AuthResponse(false, "Username already exists"));
+                })
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    log.error("Registration error: ", e);
+                    return Mono.just(new AuthResponse(false, "Registration failed"));
+                });
+    }
+
+    public Mono<AuthResponse> login(LoginRequest request) {
+        log.debug("Login attempt for username: {}", request.getUsername());
+
+        return userRepository.findByUsername(request.getUsername().trim())
+                .flatMap(user -> Mono.fromFuture(() -> passwordHasher.matches(request.getPassword(), user.getPassword()))
+                        .map(matches -> {
+                            if (!matches) {
+                                log.debug("Password mismatch for user: {}", request.getUsername());
+                                return new AuthResponse(false, "Invalid credentials");
+                            }
+
+                            rehashIfOutdated(user, request.getPassword());
+                            String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getTokenVersion());
+
+                            log.debug("Login successful for user: {}", request.getUsername());
+                            AuthResponse response = new AuthResponse();
+                            response.setSuccess(true);
+                            response.setToken(token);
+                            response.setUsername(user.getUsername());
+                            return response;
+                        }))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.debug("User not found: {}", request.getUsername());
+                    return new AuthResponse(false, "Invalid credentials");
+                }))
+                .onErrorResume(e -> !(e instanceof ServiceOverloadedException), e -> {
+                    log.error("Login error: ", e);
+                    return Mono.just(new AuthResponse(false, "Login failed"));
+                });
+    }
+
+    // Fire-and-forget; skipped when the hashing pool is busy, the next login tries again
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        Mono.fromFuture(() -> passwordHasher.encode(rawPassword))
+                .flatMap(hash -> userRepository.replacePassword(user.getId(), user.getPassword(), hash))
+                .subscribe(updated -> {
+                }, e -> log.debug("Password rehash deferred for user: {}", user.getUsername(), e));
+    }
+}
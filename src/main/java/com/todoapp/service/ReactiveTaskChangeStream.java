@@ -0,0 +1,93 @@
+package com.todoapp.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.reactivestreams.client.ChangeStreamPublisher;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+// TaskChangeStream for the reactive stack
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTaskChangeStream {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TaskEventBus taskEventBus;
+    private final TaskListCache taskListCache;
+
+    @Value("${todos.events.change-stream.enabled:true}")
+    private boolean enabled;
+
+    @Value("${todos.events.change-stream.retry-seconds:5}")
+    private long retrySeconds;
+
+    private volatile BsonDocument resumeToken;
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        String tombstones = mongoTemplate.getCollectionName(TaskTombstone.class);
+        this.subscription = Flux.defer(this::watch)
+                .doOnError(e -> {
+                    taskEventBus.changeStreamRunning(false);
+                    if (e instanceof MongoCommandException) {
+                        resumeToken = null;
+                    }
+                    log.warn("Task change stream failed; reopening in {}s", retrySeconds, e);
+                })
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofSeconds(retrySeconds)))
+                .subscribe(change -> TaskChangeStream.deliver(taskEventBus, taskListCache, change, tombstones,
+                        mongoTemplate.getConverter()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        taskEventBus.changeStreamRunning(false);
+    }
+
+    private Flux<ChangeStreamDocument<Document>> watch() {
+        String tasks = mongoTemplate.getCollectionName(Task.class);
+        String tombstones = mongoTemplate.getCollectionName(TaskTombstone.class);
+        return mongoTemplate.executeCommand("{ ping: 1 }").flatMapMany(ping -> {
+            if (!(ping.get("operationTime") instanceof BsonTimestamp startAt)) {
+                log.info("Mongo is not a replica set; task events reach only the instance that made the write");
+                return Flux.empty();
+            }
+            return mongoTemplate.getMongoDatabase().flatMapMany(database -> {
+                ChangeStreamPublisher<Document> changes = database.watch(TaskChangeStream.pipeline(tasks, tombstones))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP);
+                changes = resumeToken != null
+                        ? changes.resumeAfter(resumeToken)
+                        : changes.startAtOperationTime(startAt);
+                taskEventBus.changeStreamRunning(true);
+                return Flux.from(changes);
+            });
+        }).doOnNext(change -> resumeToken = change.getResumeToken());
+    }
+}
@@ -0,0 +1,357 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.BulkResult;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskEvent;
+import com.todoapp.dto.TaskListQuery;
+import com.todoapp.dto.TaskPage;
+import com.todoapp.dto.TaskRequest;
+import com.todoapp.dto.TaskStatsResponse;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskStats;
+import com.todoapp.repository.ChangeSequence;
+import com.todoapp.repository.ReactiveTaskRepository;
+import com.todoapp.repository.ReactiveTaskStatsRepository;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFields;
+import com.todoapp.repository.TaskFilter;
+import com.todoapp.repository.TaskSort;
+import com.todoapp.security.RequestRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// TaskService for the "reactive" profile: same behaviour, no thread held while Mongo works
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveTaskStatsRepository taskStatsRepository;
+    private final TaskListCache taskListCache;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskEventBus taskEventBus;
+    private final RequestRateLimiter requestRateLimiter;
+
+    @Value("${todos.page.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${todos.page.max-limit:200}")
+    private int maxPageLimit;
+
+    @Value("${todos.changes.settle-ms:5000}")
+    private long changeSettleMs;
+
+    @Value("${todos.export.batch-size:1000}")
+    private int exportBatchSize;
+
+    @Value("${todos.events.buffer-size:64}")
+    private int eventBufferSize;
+
+    @Value("${todos.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${todos.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    private Mono<String> getCurrentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not authenticated")));
+    }
+
+    // Kept by TaskListCache, as in the blocking service
+    public Mono<String> getTaskListVersion() {
+        return getCurrentUserId().flatMap(userId -> taskListCache.version(userId,
+                taskRepository.findLatestChangeByUserId(userId)));
+    }
+
+    public Mono<TaskListCache.Versioned<List<Task>>> getAllTasks(TaskFields fields, String version) {
+        return getCurrentUserId().flatMap(userId -> taskListCache.get(userId, version,
+                TaskOperations.allViewKey(fields),
+                taskRepository.findAllByUserId(userId, fields).collectList().map(List::copyOf),
+                List::size));
+    }
+
+    public Mono<TaskListCache.Versioned<TaskPage>> getTaskPage(Integer limit, String after, TaskListQuery query,
+                                                               TaskFields fields, String version) {
+        int pageSize = TaskOperations.pageSize(limit, defaultPageLimit, maxPageLimit);
+        TaskCursor cursor = TaskOperations.decodeCursor(after);
+        TaskFilter filter = TaskOperations.toFilter(query);
+
+        return getCurrentUserId().flatMap(userId -> taskListCache.get(userId, version,
+                TaskOperations.pageViewKey(pageSize, filter, fields, cursor),
+                taskRepository.findPageByUserId(userId, filter, fields, cursor, pageSize + 1).collectList()
+                        .map(tasks -> TaskOperations.toPage(tasks, pageSize, filter.sort())),
+                page -> page.getItems().size()));
+    }
+
+    // Not cached, as in the blocking service
+    public Mono<TaskPage> getArchivedTaskPage(Integer limit, String after) {
+        int pageSize = TaskOperations.pageSize(limit, defaultPageLimit, maxPageLimit);
+        TaskCursor cursor = TaskOperations.decodeCursor(after);
+
+        return getCurrentUserId().flatMap(userId -> Mono.zip(
+                        taskRepository.findArchivedPageByUserId(userId, cursor, pageSize + 1).collectList(),
+                        taskRepository.findColdPageByUserId(userId, cursor, pageSize + 1).collectList())
+                .map(lists -> TaskOperations.toPage(
+                        TaskOperations.mergeNewestFirst(lists.getT1(), lists.getT2(), pageSize + 1),
+                        pageSize, TaskSort.CREATED_AT)));
+    }
+
+    public Mono<TaskChanges> getChanges(long since) {
+        return getCurrentUserId().flatMap(userId -> {
+            TaskOperations.checkSince(since);
+            Flux<Task> changed = since > 0
+                    ? taskRepository.findChangedByUserId(userId, since)
+                    : taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
+            return Mono.zip(changed.collectList(), taskRepository.findTombstonesByUserId(userId, since).collectList())
+                    .map(lists -> TaskOperations.toChanges(since, lists.getT1(), lists.getT2(), changeSettleMs));
+        });
+    }
+
+    // Read from the user's stats document; the first read after it was lost, or never existed, rebuilds it
+    public Mono<TaskStatsResponse> getStats() {
+        return getCurrentUserId().flatMap(userId -> taskStatsRepository.findById(userId)
+                .switchIfEmpty(Mono.defer(() -> taskStatsRepository.rebuild(userId)))
+                .flatMap(stats -> toStatsResponse(userId, stats)));
+    }
+
+    // Recounts from the tasks, replacing counters that drifted, and the ones bulk writes here dropped
+    public Mono<TaskStatsResponse> rebuildStats() {
+        return getCurrentUserId().flatMap(userId -> {
+            log.debug("Rebuilding task stats for user: {}", userId);
+            return taskStatsRepository.rebuild(userId).flatMap(stats -> toStatsResponse(userId, stats));
+        });
+    }
+
+    private Mono<TaskStatsResponse> toStatsResponse(String userId, TaskStats stats) {
+        LocalDateTime now = LocalDateTime.now();
+        String today = TaskStats.dueDayKey(now);
+        Mono<Long> overdueToday = stats.getOpenDue().getOrDefault(today, 0L) > 0
+                ? taskRepository.countOpenDueByUserId(userId, TaskStats.startOfDueDay(today), now)
+                : Mono.just(0L);
+        return overdueToday.map(overdue -> TaskStatsDelta.toResponse(stats, today, overdue));
+    }
+
+    // The index lookup (and the first search's load) is in-memory, blocking work, so it runs on boundedElastic
+    public Mono<List<Task>> searchTasks(String query, Integer limit) {
+        int maxResults = TaskOperations.pageSize(limit, defaultSearchLimit, maxSearchLimit);
+        return getCurrentUserId().flatMap(userId -> Mono.fromCallable(() -> taskSearchIndex.search(userId, query,
+                                maxResults, () -> taskRepository.streamByUserId(userId, exportBatchSize).toStream()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(rankedIds -> rankedIds.isEmpty()
+                                ? Mono.just(List.<Task>of())
+                                : taskRepository.findAllById(rankedIds).collectList()
+                                        .map(tasks -> TaskOperations.inRankOrder(rankedIds, tasks, userId))));
+    }
+
+    // Events wait in a bounded queue until the client takes them; a client that falls behind by more than
+    // the buffer has its stream completed and resumes with Last-Event-ID
+    public Flux<ServerSentEvent<TaskEvent>> streamEvents(String lastEventId) {
+        return getCurrentUserId().flatMapMany(userId -> {
+            ArrayBlockingQueue<TaskEventBus.Delivery> buffer = new ArrayBlockingQueue<>(eventBufferSize);
+            Sinks.Many<TaskEventBus.Delivery> sink = Sinks.many().unicast().onBackpressureBuffer(buffer);
+            TaskEventBus.Subscriber subscriber = new TaskEventBus.Subscriber() {
+                @Override
+                public boolean offer(TaskEventBus.Delivery delivery) {
+                    Sinks.EmitResult result = sink.tryEmitNext(delivery);
+                    return result.isSuccess() || result == Sinks.EmitResult.FAIL_TERMINATED
+                            || result == Sinks.EmitResult.FAIL_CANCELLED;
+                }
+
+                @Override
+                public int remainingCapacity() {
+                    return buffer.remainingCapacity();
+                }
+
+                @Override
+                public void close() {
+                    sink.tryEmitComplete();
+                }
+            };
+            subscriber.offer(TaskEventBus.HEARTBEAT);
+            taskEventBus.subscribe(userId, lastEventId, subscriber);
+            return sink.asFlux()
+                    .map(ReactiveTaskService::toServerSentEvent)
+                    .doFinally(signal -> taskEventBus.unsubscribe(userId, subscriber));
+        });
+    }
+
+    private static ServerSentEvent<TaskEvent> toServerSentEvent(TaskEventBus.Delivery delivery) {
+        if (delivery.event() == null) {
+            return ServerSentEvent.<TaskEvent>builder().comment("heartbeat").build();
+        }
+        return ServerSentEvent.builder(delivery.event())
+                .id(delivery.id())
+                .event(delivery.event().getType())
+                .build();
+    }
+
+    // Backpressured straight from the Mongo cursor; the codec writes one JSON document per line
+    public Flux<Task> exportTasks() {
+        return getCurrentUserId().flatMapMany(userId -> taskRepository.streamByUserId(userId, exportBatchSize));
+    }
+
+    public Mono<Task> createTask(TaskRequest request) {
+        return getCurrentUserId().flatMap(userId -> taskRepository
+                .save(TaskOperations.newTask(userId, request, ChangeSequence.next()))
+                .flatMap(task -> recordStats(userId, TaskStatsDelta.of(null, task)).thenReturn(task))
+                .doOnNext(task -> {
+                    taskListCache.invalidate(userId);
+                    taskSearchIndex.put(userId, task);
+                    taskEventBus.publish(userId, new TaskEvent("created", task.getId(), task));
+                }));
+    }
+
+    // One findAndModify returning the task as it was, as in the blocking service
+    public Mono<Task> updateTask(String taskId, TaskRequest request) {
+        Map<String, Object> fields = TaskOperations.updatedFields(request);
+        if (fields.isEmpty()) {
+            return getCurrentUserId().flatMap(userId -> taskRepository.findById(taskId)
+                    .filter(task -> userId.equals(task.getUserId()))
+                    .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found"))));
+        }
+        long changeSeq = ChangeSequence.next();
+        return getCurrentUserId().flatMap(userId -> taskRepository.setFieldsByUserId(userId, taskId, fields, changeSeq)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found")))
+                .flatMap(previous -> {
+                    Task before = TaskStatsDelta.counted(previous);
+                    Task updated = TaskOperations.applied(previous, fields, changeSeq);
+                    return TaskStatsDelta.affects(fields)
+                            ? recordStats(userId, TaskStatsDelta.of(before, updated)).thenReturn(updated)
+                            : Mono.just(updated);
+                })
+                .doOnNext(task -> {
+                    taskListCache.invalidate(userId);
+                    taskSearchIndex.put(userId, task);
+                    taskEventBus.publish(userId, new TaskEvent("updated", taskId, task));
+                }));
+    }
+
+    public Mono<Task> toggleTask(String taskId) {
+        return getCurrentUserId().flatMap(userId -> taskRepository.toggleCompletedByUserId(userId, taskId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found")))
+                .flatMap(task -> recordStats(userId, TaskStatsDelta.of(
+                        TaskStatsDelta.withCompleted(task, !task.isCompleted()), task)).thenReturn(task))
+                .doOnNext(task -> {
+                    taskListCache.invalidate(userId);
+                    taskEventBus.publish(userId, new TaskEvent("toggled", taskId, task));
+                }));
+    }
+
+    public Mono<Void> deleteTask(String taskId) {
+        return getCurrentUserId().flatMap(userId -> taskRepository.deleteByUserId(userId, taskId)
+                .switchIfEmpty(Mono.defer(() -> taskRepository.deleteArchivedByUserId(userId, taskId)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found")))
+                .flatMap(task -> recordStats(userId, TaskStatsDelta.of(task, null)).thenReturn(task))
+                .doOnNext(task -> {
+                    taskListCache.invalidate(userId);
+                    taskSearchIndex.remove(userId, taskId);
+                    taskEventBus.publish(userId, new TaskEvent("deleted", taskId, null));
+                }))
+                .then();
+    }
+
+    public Mono<Task> archiveTask(String taskId) {
+        return getCurrentUserId().flatMap(userId -> taskRepository.toggleArchivedByUserId(userId, taskId)
+                .switchIfEmpty(Mono.defer(() -> taskRepository.restoreArchivedByUserId(userId, taskId)
+                        .doOnNext(task -> taskSearchIndex.put(userId, task))))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Task not found")))
+                .flatMap(task -> recordStats(userId, TaskStatsDelta.of(
+                        TaskStatsDelta.withArchived(task, !task.isArchived()), task)).thenReturn(task))
+                .doOnNext(task -> {
+                    taskListCache.invalidate(userId);
+                    taskEventBus.publish(userId, new TaskEvent("archived", taskId, task));
+                }));
+    }
+
+    public Mono<BulkResult> completeTasks(List<String> taskIds) {
+        return getCurrentUserId().flatMap(userId -> {
+            requestRateLimiter.acquire(RequestRateLimiter.Route.BULK, RequestRateLimiter.userClient(userId),
+                    taskIds.size());
+            List<String> failedIds = new ArrayList<>();
+            Set<ObjectId> ids = TaskOperations.toObjectIds(taskIds, failedIds);
+            Mono<Long> matched = ids.isEmpty() ? Mono.just(0L) : taskRepository.completeAllByUserId(userId, ids);
+
+            return matched.flatMap(count -> dropStats(userId, count).thenReturn(count)).flatMap(count -> {
+                taskListCache.invalidate(userId);
+                Mono<List<String>> completedIds = count == ids.size()
+                        ? Mono.just(ids.stream().map(ObjectId::toHexString).toList())
+                        : taskRepository.findIdsByUserId(userId, ids).collectList();
+                return completedIds.map(ownedIds -> {
+                    ownedIds.forEach(taskId -> taskEventBus.publish(userId, new TaskEvent("completed", taskId, null)));
+                    return TaskOperations.partition(ids, ownedIds, failedIds);
+                });
+            });
+        });
+    }
+
+    public Mono<BulkResult> deleteTasks(List<String> taskIds) {
+        return getCurrentUserId().flatMap(userId -> {
+            requestRateLimiter.acquire(RequestRateLimiter.Route.BULK, RequestRateLimiter.userClient(userId),
+                    taskIds.size());
+            List<String> failedIds = new ArrayList<>();
+            Set<ObjectId> ids = TaskOperations.toObjectIds(taskIds, failedIds);
+            Mono<List<String>> owned = ids.isEmpty()
+                    ? Mono.just(List.of())
+                    : taskRepository.findIdsByUserId(userId, ids).collectList();
+
+            return owned.flatMap(ownedIds -> ownedIds.isEmpty()
+                    ? Mono.just(TaskOperations.partition(ids, ownedIds, failedIds))
+                    : taskRepository.deleteAllByUserId(userId, ownedIds.stream().map(ObjectId::new).toList())
+                            .flatMap(deleted -> dropStats(userId, deleted).thenReturn(deleted))
+                            .doOnNext(deleted -> {
+                                taskListCache.invalidate(userId);
+                                ownedIds.forEach(taskId -> taskSearchIndex.remove(userId, taskId));
+                                ownedIds.forEach(taskId -> taskEventBus.publish(userId,
+                                        new TaskEvent("deleted", taskId, null)));
+                            })
+                            .thenReturn(TaskOperations.partition(ids, ownedIds, failedIds)));
+        });
+    }
+
+    // A failed $inc is logged, not failed with the write, as in the blocking service
+    private Mono<Void> recordStats(String userId, Map<String, Long> deltas) {
+        return taskStatsRepository.increment(userId, deltas)
+                .onErrorResume(e -> {
+                    log.warn("Failed to update task stats for user {}", userId, e);
+                    return Mono.empty();
+                });
+    }
+
+    // Bulk writes here report counts, not the tasks they changed, so the stats cannot be moved: the document
+    // is dropped instead and rebuilt on its next read
+    private Mono<Void> dropStats(String userId, long changed) {
+        if (changed == 0) {
+            return Mono.empty();
+        }
+        return taskStatsRepository.deleteById(userId)
+                .onErrorResume(e -> {
+                    log.warn("Failed to drop task stats for user {}", userId, e);
+                    return Mono.empty();
+                });
+    }
+}
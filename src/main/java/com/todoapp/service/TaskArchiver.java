@@ -0,0 +1,133 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskEvent;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Hot/cold tiering. Tasks archived for move-after-minutes are moved in batches from tasks to tasks_archive,
+// so the tasks collection and its indexes only hold what lists normally show; archiving a moved task again
+// restores it. With purge-after-days set, tasks moved that long ago are deleted, leaving tombstones for delta
+// sync. Purging is a job rather than a TTL index so stats, tombstones and events stay in step with it.
+// Instances may run this concurrently: every step is idempotent.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskArchiver {
+
+    private final TaskRepository taskRepository;
+    private final TaskStatsRepository taskStatsRepository;
+    private final TaskListCache taskListCache;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskEventBus taskEventBus;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${todos.archive.move-after-minutes:1440}")
+    private long moveAfterMinutes;
+
+    @Value("${todos.archive.purge-after-days:0}")
+    private long purgeAfterDays;
+
+    @Value("${todos.archive.interval-seconds:300}")
+    private long intervalSeconds;
+
+    @Value("${todos.archive.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService scheduler;
+    private Counter moved;
+    private Counter purged;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        this.moved = Counter.builder("tasks.archive.moved").register(meterRegistry);
+        this.purged = Counter.builder("tasks.archive.purged").register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::run, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // A failed pass is retried from scratch on the next one
+    void run() {
+        try {
+            moveArchived();
+            if (purgeAfterDays > 0) {
+                purgeArchived();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Task archiver pass failed", e);
+        }
+    }
+
+    // Lists include archived tasks, so the owners' cached lists go; stats are unchanged, the tasks still count
+    void moveArchived() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(moveAfterMinutes));
+        List<Task> batch;
+        do {
+            batch = taskRepository.moveArchived(cutoff, batchSize);
+            batch.stream().map(Task::getUserId).distinct().forEach(taskListCache::invalidate);
+            moved.increment(batch.size());
+        } while (batch.size() == batchSize);
+    }
+
+    void purgeArchived() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(purgeAfterDays));
+        List<Task> batch;
+        do {
+            batch = taskRepository.purgeArchived(cutoff, batchSize);
+            Map<String, List<Task>> byUser = batch.stream().collect(Collectors.groupingBy(Task::getUserId));
+            byUser.forEach(this::purged);
+            purged.increment(batch.size());
+        } while (batch.size() == batchSize);
+    }
+
+    private void purged(String userId, List<Task> tasks) {
+        TaskStatsDelta stats = new TaskStatsDelta();
+        tasks.forEach(task -> stats.add(task, null));
+        try {
+            taskStatsRepository.increment(userId, stats.deltas());
+        } catch (RuntimeException e) {
+            log.warn("Failed to update task stats for user {}", userId, e);
+        }
+        for (Task task : tasks) {
+            taskSearchIndex.remove(userId, task.getId());
+            taskEventBus.publish(userId, new TaskEvent("deleted", task.getId(), null));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.todoapp.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.todoapp.dto.TaskEvent;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Feeds TaskEventBus from a change stream on tasks and task_tombstones, so event streams see writes made on
+// every instance. Change streams need a replica set: a ping's reply carries an operationTime only there, and
+// the stream starts at it, so no write between the ping and the writers' events being switched off is missed.
+// On a standalone server the bus keeps delivering writers' events. A failed stream is reopened after
+// retry-seconds from its last resume token; writers' events are delivered in the meantime, so clients can see
+// a change twice.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskChangeStream {
+
+    private static final Set<String> STAMP_FIELDS = Set.of("changeSeq", "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskEventBus taskEventBus;
+    private final TaskListCache taskListCache;
+
+    @Value("${todos.events.change-stream.enabled:true}")
+    private boolean enabled;
+
+    @Value("${todos.events.change-stream.retry-seconds:5}")
+    private long retrySeconds;
+
+    private volatile boolean stopped;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        this.thread = new Thread(this::run, "task-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        String tasks = mongoTemplate.getCollectionName(Task.class);
+        String tombstones = mongoTemplate.getCollectionName(TaskTombstone.class);
+        BsonDocument resumeToken = null;
+        while (!stopped) {
+            try {
+                Document ping = mongoTemplate.executeCommand("{ ping: 1 }");
+                if (!(ping.get("operationTime") instanceof BsonTimestamp startAt)) {
+                    log.info("Mongo is not a replica set; task events reach only the instance that made the write");
+                    return;
+                }
+                ChangeStreamIterable<Document> changes = mongoTemplate.getDb().watch(pipeline(tasks, tombstones))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP)
+                        .maxAwaitTime(1, TimeUnit.SECONDS);
+                changes = resumeToken != null
+                        ? changes.resumeAfter(resumeToken)
+                        : changes.startAtOperationTime(startAt);
+                taskEventBus.changeStreamRunning(true);
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changes.cursor()) {
+                    while (!stopped) {
+                        ChangeStreamDocument<Document> change = cursor.tryNext();
+                        if (change != null) {
+                            deliver(taskEventBus, taskListCache, change, tombstones, mongoTemplate.getConverter());
+                        }
+                        if (cursor.getResumeToken() != null) {
+                            resumeToken = cursor.getResumeToken();
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                taskEventBus.changeStreamRunning(false);
+                if (stopped) {
+                    return;
+                }
+                // The server rejected the stream itself, e.g. the resume point has left the oplog
+                if (e instanceof MongoCommandException) {
+                    resumeToken = null;
+                }
+                log.warn("Task change stream failed; reopening in {}s", retrySeconds, e);
+                try {
+                    TimeUnit.SECONDS.sleep(retrySeconds);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        taskEventBus.changeStreamRunning(false);
+    }
+
+    // Task writes and tombstones; deletes from tasks are left out, tombstones report them with the owner
+    static List<Bson> pipeline(String tasks, String tombstones) {
+        return List.of(Aggregates.match(Filters.and(
+                Filters.in("ns.coll", tasks, tombstones),
+                Filters.in("operationType", "insert", "update", "replace"))));
+    }
+
+    // Changes whose document is gone by the time it was looked up are skipped; a later change reports it.
+    // Each one also raises the owner's list version.
+    static void deliver(TaskEventBus taskEventBus, TaskListCache taskListCache, ChangeStreamDocument<Document> change,
+                        String tombstones, MongoConverter converter) {
+        Document document = change.getFullDocument();
+        if (document == null || change.getNamespace() == null) {
+            return;
+        }
+        if (tombstones.equals(change.getNamespace().getCollectionName())) {
+            TaskTombstone tombstone = converter.read(TaskTombstone.class, document);
+            taskListCache.changed(tombstone.getUserId(), tombstone.getChangeSeq());
+            taskEventBus.deliver(tombstone.getUserId(), new TaskEvent("deleted", tombstone.getId(), null));
+            return;
+        }
+        Task task = converter.read(Task.class, document);
+        taskListCache.changed(task.getUserId(), task.getChangeSeq());
+        taskEventBus.deliver(task.getUserId(), new TaskEvent(typeOf(change), task.getId(), task));
+    }
+
+    // Toggles and archives set one flag besides the stamp
+    private static String typeOf(ChangeStreamDocument<Document> change) {
+        if (change.getOperationType() == OperationType.INSERT) {
+            return "created";
+        }
+        if (change.getOperationType() != OperationType.UPDATE || change.getUpdateDescription() == null
+                || change.getUpdateDescription().getUpdatedFields() == null) {
+            return "updated";
+        }
+        Set<String> fields = new HashSet<>(change.getUpdateDescription().getUpdatedFields().keySet());
+        fields.removeAll(STAMP_FIELDS);
+        if (fields.equals(Set.of("completed"))) {
+            return "toggled";
+        }
+        if (fields.equals(Set.of("archived"))) {
+            return "archived";
+        }
+        return "updated";
+    }
+}
@@ -0,0 +1,257 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process fan-out of task changes to a user's open event streams. Each user with listeners has a channel
+// that numbers its events and keeps the last few, so a client reconnecting with Last-Event-ID gets what it
+// missed. Ids from before a restart, from another instance, or older than the replay window get a reset
+// event instead, telling the client to reload its list.
+//
+// On a replica set a change stream (TaskChangeStream) feeds the bus with every instance's writes, and the
+// events writers publish here are ignored while it runs. On a standalone server, or while the stream is
+// down, writers' events are delivered directly and only this instance's writes are seen.
+//
+// Subscribers take events through a bounded buffer and must never block the writer publishing them; one
+// whose buffer is full is dropped and closed, and can reconnect to resume.
+@Component
+@RequiredArgsConstructor
+public class TaskEventBus {
+
+    public static final Delivery HEARTBEAT = new Delivery(null, null);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.events.replay-size:256}")
+    private int replaySize;
+
+    @Value("${todos.events.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${todos.events.idle-channel-minutes:5}")
+    private long idleChannelMinutes;
+
+    // Keeps ids handed out before a restart, or by another instance, from ever resuming here
+    private final String busId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private volatile boolean changeStreamRunning;
+
+    private ScheduledExecutorService heartbeats;
+    private Counter published;
+    private Counter dropped;
+    private Counter resets;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("tasks.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open task event streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("tasks.events.published").register(meterRegistry);
+        this.dropped = Counter.builder("tasks.events.dropped")
+                .description("Streams closed because their buffer was full")
+                .register(meterRegistry);
+        this.resets = Counter.builder("tasks.events.resets")
+                .description("Reconnects that could not be resumed from the replay window")
+                .register(meterRegistry);
+
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        channels.values().forEach(Channel::closeAll);
+    }
+
+    // Called after the write
+    public void publish(String userId, TaskEvent event) {
+        if (!changeStreamRunning) {
+            deliver(userId, event);
+        }
+    }
+
+    // Called by the change stream; users nobody is listening to are skipped
+    public void deliver(String userId, TaskEvent event) {
+        Channel channel = channels.get(userId);
+        if (channel != null) {
+            channel.publish(event);
+            published.increment();
+        }
+    }
+
+    // Set once the stream's cursor is open, so no write falls between it and writers' events; cleared as soon
+    // as it fails
+    public void changeStreamRunning(boolean running) {
+        this.changeStreamRunning = running;
+    }
+
+    // Replays what the subscriber missed after lastEventId (or sends a reset), then streams new events
+    public void subscribe(String userId, String lastEventId, Subscriber subscriber) {
+        channels.compute(userId, (key, channel) -> {
+            Channel subscribed = channel != null ? channel : new Channel();
+            subscribed.subscribe(lastEventId, subscriber);
+            return subscribed;
+        });
+    }
+
+    public void unsubscribe(String userId, Subscriber subscriber) {
+        Channel channel = channels.get(userId);
+        if (channel != null) {
+            channel.unsubscribe(subscriber);
+        }
+    }
+
+    // Channels outlive their last subscriber for a while, so a client that drops can still resume
+    private void heartbeat() {
+        long idleSince = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleChannelMinutes);
+        for (String userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (key, channel) -> {
+                channel.heartbeat();
+                return channel.idleSince(idleSince) ? null : channel;
+            });
+        }
+    }
+
+    public interface Subscriber {
+
+        // Must not block; false when the buffer is full
+        boolean offer(Delivery delivery);
+
+        int remainingCapacity();
+
+        // The bus has already forgotten the subscriber
+        void close();
+    }
+
+    // An event and its stream id; HEARTBEAT carries neither
+    public record Delivery(String id, TaskEvent event) {
+    }
+
+    private record Recent(long seq, Delivery delivery) {
+    }
+
+    private final class Channel {
+
+        private final ArrayDeque<Recent> recent = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private long lastSeq;
+        private long lastActive = System.nanoTime();
+
+        synchronized void publish(TaskEvent event) {
+            long seq = ++lastSeq;
+            Delivery delivery = new Delivery(busId + "-" + seq, event);
+            recent.addLast(new Recent(seq, delivery));
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            List<Subscriber> full = new ArrayList<>();
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(delivery)) {
+                    full.add(subscriber);
+                }
+            }
+            full.forEach(this::drop);
+        }
+
+        synchronized void subscribe(String lastEventId, Subscriber subscriber) {
+            lastActive = System.nanoTime();
+            subscribers.add(subscriber);
+            subscriberCount.incrementAndGet();
+            if (lastEventId == null || lastEventId.isEmpty()) {
+                return;
+            }
+
+            long after = resumePoint(lastEventId);
+            List<Delivery> missed = new ArrayList<>();
+            for (Recent event : recent) {
+                if (event.seq() > after) {
+                    missed.add(event.delivery());
+                }
+            }
+            if (after < 0 || missed.size() >= subscriber.remainingCapacity()) {
+                resets.increment();
+                missed = List.of(new Delivery(busId + "-" + lastSeq, new TaskEvent("reset", null, null)));
+            }
+            for (Delivery delivery : missed) {
+                if (!subscriber.offer(delivery)) {
+                    drop(subscriber);
+                    return;
+                }
+            }
+        }
+
+        synchronized void unsubscribe(Subscriber subscriber) {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+                lastActive = System.nanoTime();
+            }
+        }
+
+        synchronized void heartbeat() {
+            List<Subscriber> full = new ArrayList<>();
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(HEARTBEAT)) {
+                    full.add(subscriber);
+                }
+            }
+            full.forEach(this::drop);
+        }
+
+        synchronized boolean idleSince(long nanoTime) {
+            return subscribers.isEmpty() && lastActive - nanoTime < 0;
+        }
+
+        synchronized void closeAll() {
+            List.copyOf(subscribers).forEach(subscriber -> {
+                unsubscribe(subscriber);
+                subscriber.close();
+            });
+        }
+
+        // The sequence number to resume after, or -1 when the id cannot be resumed here
+        private long resumePoint(String lastEventId) {
+            String prefix = busId + "-";
+            if (!lastEventId.startsWith(prefix)) {
+                return -1;
+            }
+            long seq;
+            try {
+                seq = Long.parseLong(lastEventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            long oldestKept = recent.isEmpty() ? lastSeq + 1 : recent.peekFirst().seq();
+            return seq <= lastSeq && seq >= oldestKept - 1 ? seq : -1;
+        }
+
+        private void drop(Subscriber subscriber) {
+            unsubscribe(subscriber);
+            dropped.increment();
+            subscriber.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.todoapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent event streams on the servlet stack. Writes to the response block, so the bus hands events to a
+// per-connection queue and a small sender pool writes them out; a connection at most occupies one sender at a
+// time. Streams end after the timeout and browsers reconnect with Last-Event-ID.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class TaskEventStreams {
+
+    private final TaskEventBus taskEventBus;
+
+    @Value("${todos.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${todos.events.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${todos.events.send-threads:4}")
+    private int sendThreads;
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-events-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    public SseEmitter open(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(connection::release);
+        // Completing on timeout ends the stream normally instead of as an AsyncRequestTimeoutException
+        emitter.onTimeout(() -> {
+            connection.release();
+            emitter.complete();
+        });
+        emitter.onError(error -> connection.release());
+
+        // A first comment commits the response headers, so the client sees the stream open right away
+        connection.offer(TaskEventBus.HEARTBEAT);
+        taskEventBus.subscribe(userId, lastEventId, connection);
+        return emitter;
+    }
+
+    private final class Connection implements TaskEventBus.Subscriber {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskEventBus.Delivery> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public boolean offer(TaskEventBus.Delivery delivery) {
+            if (closed) {
+                return true;
+            }
+            if (!queue.offer(delivery)) {
+                return false;
+            }
+            drainLater();
+            return true;
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return queue.remainingCapacity();
+        }
+
+        // Called under the bus's channel lock, where blocking on a send in progress would stall the writer;
+        // the sender completes the emitter once it is free
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+            drainLater();
+        }
+
+        void release() {
+            closed = true;
+            taskEventBus.unsubscribe(userId, this);
+        }
+
+        private void drainLater() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                TaskEventBus.Delivery delivery;
+                while (!closed && (delivery = queue.poll()) != null) {
+                    emitter.send(toEvent(delivery));
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                release();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                drainLater();
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(TaskEventBus.Delivery delivery) {
+        if (delivery.event() == null) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name(delivery.event().getType())
+                .data(delivery.event(), MediaType.APPLICATION_JSON);
+        return delivery.id() != null ? event.id(delivery.id()) : event;
+    }
+}
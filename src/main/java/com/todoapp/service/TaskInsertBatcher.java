@@ -0,0 +1,265 @@
+package com.todoapp.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.todoapp.exception.ServiceOverloadedException;
+import com.todoapp.model.Task;
+import com.todoapp.repository.ChangeSequence;
+import com.todoapp.repository.ReadRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Group commit for task inserts. Concurrent creates queue here and a few flusher threads write them out as one
+// unordered insertMany, flushing once a batch is full or its oldest insert has waited max-delay-ms. Each batch
+// is stamped with consecutive change sequences when it is flushed, and the insert runs with the template's
+// write concern, so a caller gets the same acknowledgement as a single save. Per-document write errors only
+// fail their own caller. Off by default: an idle server pays up to max-delay-ms on every create.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskInsertBatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    @Value("${todos.insert-batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${todos.insert-batching.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${todos.insert-batching.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${todos.insert-batching.queue-capacity:4096}")
+    private int queueCapacity;
+
+    @Value("${todos.insert-batching.flush-threads:2}")
+    private int flushThreads;
+
+    @Value("${todos.insert-batching.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private BlockingQueue<PendingInsert> queue;
+    private ExecutorService flushers;
+    private volatile boolean running;
+    private DistributionSummary batchSize;
+    private Timer queueWait;
+    private Counter rejected;
+    // By outcome: success, partial or failure
+    private Map<String, Timer> flushes;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = DistributionSummary.builder("tasks.insert.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("tasks.insert.batch.wait")
+                .description("Time an insert waited for its batch to be flushed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tasks.insert.batch.rejected").register(meterRegistry);
+        this.flushes = Stream.of("success", "partial", "failure").collect(Collectors.toUnmodifiableMap(
+                outcome -> outcome,
+                outcome -> Timer.builder("tasks.insert.batch.flush")
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+        Gauge.builder("tasks.insert.batch.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.running = true;
+        this.flushers = Executors.newFixedThreadPool(flushThreads, new CustomizableThreadFactory("task-insert-"));
+        for (int i = 0; i < flushThreads; i++) {
+            flushers.execute(this::flushLoop);
+        }
+    }
+
+    // Flushers write out what is already queued before they stop
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flushers == null) {
+            return;
+        }
+        running = false;
+        flushers.shutdown();
+        if (!flushers.awaitTermination(10, TimeUnit.SECONDS)) {
+            flushers.shutdownNow();
+            flushers.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        // Inserts queued after the flushers stopped looking, or left behind by an interrupted one
+        List<PendingInsert> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    // Blocks until the task's batch is written; returns the task with its id and change sequence set
+    public Task insert(Task task) {
+        PendingInsert pending = new PendingInsert(task, System.nanoTime());
+        if (!running) {
+            flush(List.of(pending));
+        } else if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many tasks being created, try again shortly",
+                    retryAfterSeconds);
+        }
+        try {
+            Task inserted = pending.result.join();
+            ReadRouting.carryLastWrite(pending.written);
+            return inserted;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flushLoop() {
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // The deadline runs from the oldest insert's arrival, not from when this flusher woke up
+                long deadline = first.queuedAt + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        long startedAt = System.nanoTime();
+        String outcome = "success";
+        try {
+            for (PendingInsert pending : batch) {
+                queueWait.record(startedAt - pending.queuedAt, TimeUnit.NANOSECONDS);
+            }
+            batchSize.record(batch.size());
+            assignIds(batch);
+
+            RuntimeException[] errors = insertAll(batch);
+            ReadRouting.WriteTime written = ReadRouting.takeLastWrite();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).written = written;
+                if (errors[i] == null) {
+                    batch.get(i).result.complete(batch.get(i).task);
+                } else {
+                    batch.get(i).result.completeExceptionally(errors[i]);
+                    outcome = "partial";
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to insert a batch of {} tasks", batch.size(), e);
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            outcome = "failure";
+        } finally {
+            flushes.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Ids are set here rather than by the driver so each caller's task carries its own id after the insert
+    private void assignIds(List<PendingInsert> batch) {
+        long seq = ChangeSequence.reserve(batch.size()) - batch.size();
+        for (PendingInsert pending : batch) {
+            pending.task.setId(new ObjectId().toHexString());
+            pending.task.setChangeSeq(++seq);
+        }
+    }
+
+    // Errors by batch position; null where the task was written
+    private RuntimeException[] insertAll(List<PendingInsert> batch) {
+        RuntimeException[] errors = new RuntimeException[batch.size()];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class)
+                    .insert(batch.stream().map(pending -> pending.task).toList())
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Written but not acknowledged as asked: every caller fails, as a single save would
+            if (e.getCause() instanceof MongoBulkWriteException cause && cause.getWriteConcernError() != null) {
+                throw e;
+            }
+            for (BulkWriteError error : e.getErrors()) {
+                errors[error.getIndex()] = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                        ? new DuplicateKeyException(error.getMessage())
+                        : new DataIntegrityViolationException(error.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private static final class PendingInsert {
+
+        private final Task task;
+        private final long queuedAt;
+        private final CompletableFuture<Task> result = new CompletableFuture<>();
+        // Set by the flusher before it completes result; read-your-writes for the caller's later reads
+        private ReadRouting.WriteTime written;
+
+        PendingInsert(Task task, long queuedAt) {
+            this.task = task;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.todoapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todoapp.repository.ChangeSequence;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Per-user cache of task list responses, kept under the list version they were read at: the user's latest change
+// sequence, which the controller hands out as an ETag. The version is kept here too, so a 304 costs no Mongo
+// read: it is loaded once, raised by each change the change stream delivers (writes on every instance), and
+// dropped with the views by writes on this instance. Without a change stream other instances' writes are seen
+// when it expires, after the same TTL that bounds the memory held by views nobody asks for again.
+//
+// A change younger than the settle window may have been stamped after a write still in flight, or not have
+// reached the member lists are read from. Until it settles the version carries a "~", so whatever is cached
+// and tagged then is retired once, when it does. A change delivered out of sequence order reopens the window.
+@Component
+@RequiredArgsConstructor
+public class TaskListCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.list-cache.max-tasks:1000000}")
+    private long maxTasks;
+
+    @Value("${todos.list-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${todos.list-cache.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${todos.changes.settle-ms:5000}")
+    private long settleMs;
+
+    private Cache<String, Entry> entries;
+    private Cache<String, ListVersion> versions;
+    // Bumped, under the version's lock, by each drop or raise of a version in the stripe, so a load that raced
+    // one is not kept
+    private final AtomicLongArray epochs = new AtomicLongArray(64);
+
+    @PostConstruct
+    public void init() {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxTasks)
+                .weigher((String userId, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "tasks.list");
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "tasks.list.versions");
+    }
+
+    // The user's list version; latestChange reads the user's latest change from Mongo when none is kept
+    public String version(String userId, LongSupplier latestChange) {
+        ListVersion kept = versions.getIfPresent(userId);
+        if (kept != null) {
+            return kept.tag();
+        }
+        long epoch = epoch(userId);
+        return keep(userId, epoch, loaded(latestChange.getAsLong())).tag();
+    }
+
+    // Non-blocking variant for the reactive stack
+    public Mono<String> version(String userId, Mono<Long> latestChange) {
+        return Mono.defer(() -> {
+            ListVersion kept = versions.getIfPresent(userId);
+            if (kept != null) {
+                return Mono.just(kept.tag());
+            }
+            long epoch = epoch(userId);
+            return latestChange.map(latest -> keep(userId, epoch, loaded(latest)).tag());
+        });
+    }
+
+    // A change to the user's tasks, from the change stream. Versions not kept here are left to their next load.
+    public void changed(String userId, long changeSeq) {
+        versions.asMap().compute(userId, (key, kept) -> {
+            if (kept != null && kept.latestChange() == changeSeq) {
+                return kept;
+            }
+            bump(userId);
+            entries.invalidate(userId);
+            return kept != null
+                    ? new ListVersion(Math.max(changeSeq, kept.latestChange()), System.currentTimeMillis() + settleMs)
+                    : null;
+        });
+    }
+
+    public <T> Versioned<T> get(String userId, String version, String viewKey, Supplier<T> loader,
+                                ToIntFunction<T> weigher) {
+        Versioned<T> cached = cached(userId, version, viewKey);
+        if (cached != null) {
+            return cached;
+        }
+        return store(userId, version, viewKey, loader.get(), weigher);
+    }
+
+    // Non-blocking variant for the reactive stack; the loader is only subscribed on a miss
+    public <T> Mono<Versioned<T>> get(String userId, String version, String viewKey, Mono<T> loader,
+                                      ToIntFunction<T> weigher) {
+        return Mono.defer(() -> {
+            Versioned<T> cached = cached(userId, version, viewKey);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.map(value -> store(userId, version, viewKey, value, weigher));
+        });
+    }
+
+    // Writes on this instance: the next list request loads the version again
+    public void invalidate(String userId) {
+        versions.asMap().compute(userId, (key, kept) -> {
+            bump(userId);
+            return null;
+        });
+        entries.invalidate(userId);
+    }
+
+    private ListVersion loaded(long latestChange) {
+        return new ListVersion(latestChange, ChangeSequence.timeOf(latestChange).toEpochMilli() + settleMs);
+    }
+
+    // Not kept if the version was dropped or raised while it loaded; returned either way
+    private ListVersion keep(String userId, long epoch, ListVersion loaded) {
+        versions.asMap().compute(userId, (key, kept) -> kept == null && epoch(userId) == epoch ? loaded : kept);
+        return loaded;
+    }
+
+    private long epoch(String userId) {
+        return epochs.get(stripe(userId));
+    }
+
+    private void bump(String userId) {
+        epochs.incrementAndGet(stripe(userId));
+    }
+
+    private int stripe(String userId) {
+        return userId.hashCode() & (epochs.length() - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Versioned<T> cached(String userId, String version, String viewKey) {
+        Entry entry = entries.getIfPresent(userId);
+        View view = entry != null && entry.version().equals(version) ? entry.views().get(viewKey) : null;
+        return view != null ? new Versioned<>(version, (T) view.value()) : null;
+    }
+
+    // Views of an older version are dropped when the first view of a new one is stored
+    private <T> Versioned<T> store(String userId, String version, String viewKey, T value, ToIntFunction<T> weigher) {
+        View view = new View(value, weigher.applyAsInt(value));
+        entries.asMap().compute(userId, (key, current) -> current != null && current.version().equals(version)
+                ? current.with(viewKey, view)
+                : new Entry(version, Map.of(viewKey, view)));
+        return new Versioned<>(version, value);
+    }
+
+    public record Versioned<T>(String version, T value) {
+    }
+
+    private record ListVersion(long latestChange, long settlesAt) {
+
+        String tag() {
+            String version = Long.toString(latestChange, Character.MAX_RADIX);
+            return System.currentTimeMillis() < settlesAt ? version + "~" : version;
+        }
+    }
+
+    private record View(Object value, int weight) {
+    }
+
+    private record Entry(String version, Map<String, View> views) {
+
+        Entry with(String viewKey, View view) {
+            Map<String, View> copy = new HashMap<>(views);
+            copy.put(viewKey, view);
+            return new Entry(version, Map.copyOf(copy));
+        }
+
+        int weight() {
+            return 1 + views.values().stream().mapToInt(View::weight).sum();
+        }
+    }
+}
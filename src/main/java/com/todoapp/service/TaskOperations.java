@@ -0,0 +1,225 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.BulkResult;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskListQuery;
+import com.todoapp.dto.TaskPage;
+import com.todoapp.dto.TaskRequest;
+import com.todoapp.exception.ResyncRequiredException;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskTombstone;
+import com.todoapp.repository.ChangeSequence;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFields;
+import com.todoapp.repository.TaskFilter;
+import com.todoapp.repository.TaskSort;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Request and result shaping shared by the blocking and reactive task services
+final class TaskOperations {
+
+    // createdAt, then id, descending, with tasks missing createdAt last, as Mongo sorts them
+    private static final Comparator<Task> NEWEST_FIRST = Comparator.comparing(Task::getCreatedAt,
+                    Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+            .thenComparing(Task::getId)
+            .reversed();
+
+    private TaskOperations() {
+    }
+
+    static int pageSize(Integer limit, int defaultLimit, int maxLimit) {
+        return limit != null ? Math.max(1, Math.min(limit, maxLimit)) : defaultLimit;
+    }
+
+    static String pageViewKey(int pageSize, TaskFilter filter, TaskFields fields, TaskCursor cursor) {
+        return "page:" + pageSize + ":" + filter.key() + ":" + fields.key() + ":"
+                + (cursor != null ? cursor.encode() : "");
+    }
+
+    static String allViewKey(TaskFields fields) {
+        return fields.all() ? "all" : "all:" + fields.key();
+    }
+
+    static TaskFilter toFilter(TaskListQuery query) {
+        if (query == null) {
+            return TaskFilter.NONE;
+        }
+        return new TaskFilter(query.getCompleted(), query.getArchived(), query.getPriority(), query.getTags(),
+                query.getDueAfter(), query.getDueBefore(), TaskSort.parse(query.getSort()));
+    }
+
+    static TaskCursor decodeCursor(String after) {
+        return after != null && !after.isEmpty() ? TaskCursor.decode(after) : null;
+    }
+
+    // Tasks were read with one extra to learn whether another page exists
+    static TaskPage toPage(List<Task> tasks, int pageSize, TaskSort sort) {
+        if (tasks.size() <= pageSize) {
+            return new TaskPage(List.copyOf(tasks), null);
+        }
+        List<Task> page = List.copyOf(tasks.subList(0, pageSize));
+        return new TaskPage(page, TaskCursor.of(sort, page.get(pageSize - 1)).encode());
+    }
+
+    // Archived tasks from both collections, newest first as each was read. A task caught between them by a move
+    // or a restore is listed once.
+    static List<Task> mergeNewestFirst(List<Task> hot, List<Task> cold, int limit) {
+        Map<String, Task> byId = new HashMap<>();
+        hot.forEach(task -> byId.put(task.getId(), task));
+        cold.forEach(task -> byId.putIfAbsent(task.getId(), task));
+        return byId.values().stream().sorted(NEWEST_FIRST).limit(limit).toList();
+    }
+
+    // Search hits in rank order; ids no longer found for this user (deleted on another instance) are dropped
+    static List<Task> inRankOrder(List<String> rankedIds, Iterable<Task> tasks, String userId) {
+        Map<String, Task> byId = new HashMap<>();
+        for (Task task : tasks) {
+            if (userId.equals(task.getUserId())) {
+                byId.put(task.getId(), task);
+            }
+        }
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // Tombstones older than their TTL are gone, so a since from before then could miss deletes. Sequences
+    // from the per-user counter used before the clock-based ones read as 1970 and get a full sync too.
+    static void checkSince(long since) {
+        Instant oldestTombstone = Instant.now().minusSeconds(TaskTombstone.TTL_SECONDS);
+        if (since > 0 && ChangeSequence.timeOf(since).isBefore(oldestTombstone)) {
+            throw new ResyncRequiredException("Changes since " + since + " are no longer kept; sync from 0");
+        }
+    }
+
+    // Changes whose write may still be racing a concurrent one are sent again next time:
+    // the high-water mark stops short of them
+    static TaskChanges toChanges(long since, List<Task> changed, List<TaskTombstone> tombstones, long settleMs) {
+        Instant settled = Instant.now().minusMillis(settleMs);
+        long highWater = since;
+        long firstUnsettled = Long.MAX_VALUE;
+        for (Task task : changed) {
+            highWater = Math.max(highWater, task.getChangeSeq());
+            if (task.getUpdatedAt() != null && task.getUpdatedAt().isAfter(settled)) {
+                firstUnsettled = Math.min(firstUnsettled, task.getChangeSeq());
+            }
+        }
+        for (TaskTombstone tombstone : tombstones) {
+            highWater = Math.max(highWater, tombstone.getChangeSeq());
+            if (tombstone.getDeletedAt().isAfter(settled)) {
+                firstUnsettled = Math.min(firstUnsettled, tombstone.getChangeSeq());
+            }
+        }
+        if (firstUnsettled != Long.MAX_VALUE) {
+            highWater = Math.max(since, Math.min(highWater, firstUnsettled - 1));
+        }
+
+        List<String> deleted = tombstones.stream().map(TaskTombstone::getId).toList();
+        return new TaskChanges(changed, deleted, highWater);
+    }
+
+    static Task newTask(String userId, TaskRequest request, long changeSeq) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setPriority(request.getPriority() != null ? request.getPriority() : "medium");
+        task.setTags(request.getTags());
+        task.setDueDate(request.getDueDate());
+        task.setCompleted(false);
+        task.setArchived(false);
+        task.setCreatedAt(Instant.now());
+        task.setUpdatedAt(task.getCreatedAt());
+        task.setChangeSeq(changeSeq);
+        return task;
+    }
+
+    // Only the fields present in the request are $set
+    static Map<String, Object> updatedFields(TaskRequest request) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+
+        if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
+            fields.put("title", request.getTitle());
+        }
+
+        if (request.getDescription() != null) {
+            fields.put("description", request.getDescription());
+        }
+
+        if (request.getPriority() != null) {
+            fields.put("priority", request.getPriority());
+            fields.put("priorityRank", Task.rankOf(request.getPriority()));
+        }
+
+        if (request.getTags() != null) {
+            fields.put("tags", request.getTags());
+        }
+
+        if (request.getDueDate() != null) {
+            fields.put("dueDate", request.getDueDate());
+        }
+
+        if (request.getCompleted() != null) {
+            fields.put("completed", request.getCompleted());
+        }
+
+        if (request.getArchived() != null) {
+            fields.put("archived", request.getArchived());
+        }
+        return fields;
+    }
+
+    // Brings a task read before the $set of these fields up to date with it; setPriority keeps priorityRank in step
+    @SuppressWarnings("unchecked")
+    static Task applied(Task task, Map<String, Object> fields, long changeSeq) {
+        fields.forEach((field, value) -> {
+            switch (field) {
+                case "title" -> task.setTitle((String) value);
+                case "description" -> task.setDescription((String) value);
+                case "priority" -> task.setPriority((String) value);
+                case "priorityRank" -> {
+                }
+                case "tags" -> task.setTags((List<String>) value);
+                case "dueDate" -> task.setDueDate((LocalDateTime) value);
+                case "completed" -> task.setCompleted((Boolean) value);
+                case "archived" -> task.setArchived((Boolean) value);
+                default -> throw new IllegalArgumentException("Unknown task field " + field);
+            }
+        });
+        task.setChangeSeq(changeSeq);
+        task.setUpdatedAt(ChangeSequence.timeOf(changeSeq));
+        return task;
+    }
+
+    static Set<ObjectId> toObjectIds(List<String> taskIds, List<String> failedIds) {
+        Set<ObjectId> ids = new LinkedHashSet<>();
+        for (String taskId : taskIds) {
+            if (taskId != null && ObjectId.isValid(taskId)) {
+                ids.add(new ObjectId(taskId));
+            } else {
+                failedIds.add(taskId);
+            }
+        }
+        return ids;
+    }
+
+    static BulkResult partition(Set<ObjectId> ids, List<String> succeededIds, List<String> failedIds) {
+        Set<String> succeeded = new HashSet<>(succeededIds);
+        for (ObjectId id : ids) {
+            if (!succeeded.contains(id.toHexString())) {
+                failedIds.add(id.toHexString());
+            }
+        }
+        return new BulkResult(succeededIds, failedIds);
+    }
+}
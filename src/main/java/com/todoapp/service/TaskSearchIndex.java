@@ -0,0 +1,312 @@
+package com.todoapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Per-user inverted index over task title, tags and description, built from Mongo on a user's first search
+// and then kept current by the task services after each write. Every query word is matched as a prefix of
+// an indexed word (one-letter words only match exactly) and all of them must match. A task scores the sum,
+// per query word, of its best match: title 3, tag 2, description 1, doubled when the word matches exactly.
+// Writes made on another instance are not seen here, so the TTL bounds how stale an index can get; results
+// are re-read from Mongo, which drops tasks deleted elsewhere.
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_QUERY_WORDS = 8;
+    // Shorter query words would match nearly every task and only cost time
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.search.max-postings:2000000}")
+    private long maxPostings;
+
+    @Value("${todos.search.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<String, UserIndex> indexes;
+
+    @PostConstruct
+    public void init() {
+        // Weighed once the index is loaded; growth from later writes is bounded by the TTL
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxPostings)
+                .weigher((String userId, UserIndex index) -> index.postings())
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "tasks.search");
+    }
+
+    // Ids of the best matches, best first. The loader supplies all of the user's tasks and is only
+    // called when the user has no index yet; the stream is closed once read.
+    public List<String> search(String userId, String query, int limit, Supplier<Stream<Task>> loader) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            throw new BadRequestException("Search query has more than " + MAX_QUERY_WORDS + " words");
+        }
+
+        UserIndex index = indexes.get(userId, key -> new UserIndex());
+        if (index.load(loader)) {
+            indexes.asMap().replace(userId, index, index);
+        }
+        return index.search(words, limit);
+    }
+
+    // Called after a task is written. Users without a loaded index are skipped: their next search
+    // builds the index from Mongo, which already has the write.
+    public void put(String userId, Task task) {
+        UserIndex index = indexes.getIfPresent(userId);
+        if (index != null) {
+            index.put(task);
+        }
+    }
+
+    public void remove(String userId, String taskId) {
+        UserIndex index = indexes.getIfPresent(userId);
+        if (index != null) {
+            index.remove(taskId);
+        }
+    }
+
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return List.copyOf(words);
+    }
+
+    // Tasks are numbered within an index so postings and scores are plain int arrays. Ordinals of deleted tasks
+    // are not reused; the TTL rebuild compacts them. A write that lands while the index loads waits for the load
+    // and is applied after it; put is idempotent, so a task both read by the load and put again is indexed once.
+    private static final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // word -> one posting per task containing it: ordinal << 2 | weight of the best field with the word
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        // by ordinal: task id, and the task's words so rewrites and deletes can find its postings
+        private final List<String> taskIds = new ArrayList<>();
+        private final List<String[]> taskWords = new ArrayList<>();
+        private volatile boolean loaded;
+        private int postingCount;
+
+        boolean load(Supplier<Stream<Task>> loader) {
+            if (loaded) {
+                return false;
+            }
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    return false;
+                }
+                try (Stream<Task> all = loader.get()) {
+                    all.forEach(this::index);
+                }
+                loaded = true;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void put(Task task) {
+            lock.writeLock().lock();
+            try {
+                index(task);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String taskId) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.remove(taskId);
+                if (ordinal != null) {
+                    unindex(ordinal);
+                    taskIds.set(ordinal, null);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int postings() {
+            return 1 + postingCount + taskIds.size();
+        }
+
+        // A task stays a candidate only while it has matched every query word so far (matched[ordinal] counts
+        // them); best[ordinal] is its best match for the current word, so several matching words don't add up.
+        List<String> search(List<String> queryWords, int limit) {
+            lock.readLock().lock();
+            try {
+                int count = taskIds.size();
+                int[] scores = new int[count];
+                int[] best = new int[count];
+                byte[] matched = new byte[count];
+
+                for (int word = 0; word < queryWords.size(); word++) {
+                    String queryWord = queryWords.get(word);
+                    boolean any = false;
+                    String end = queryWord.length() >= MIN_PREFIX_LENGTH ? queryWord + Character.MAX_VALUE : queryWord;
+                    for (Map.Entry<String, Postings> entry
+                            : postings.subMap(queryWord, true, end, end.equals(queryWord)).entrySet()) {
+                        int factor = entry.getKey().equals(queryWord) ? 2 : 1;
+                        Postings list = entry.getValue();
+                        for (int i = 0; i < list.size; i++) {
+                            int ordinal = list.entries[i] >>> 2;
+                            int score = (list.entries[i] & 3) * factor;
+                            if (matched[ordinal] == word) {
+                                matched[ordinal] = (byte) (word + 1);
+                                best[ordinal] = score;
+                                scores[ordinal] += score;
+                                any = true;
+                            } else if (matched[ordinal] == word + 1 && score > best[ordinal]) {
+                                scores[ordinal] += score - best[ordinal];
+                                best[ordinal] = score;
+                            }
+                        }
+                    }
+                    if (!any) {
+                        return List.of();
+                    }
+                }
+                return top(scores, matched, queryWords.size(), limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Highest score first; ties go to the newer task (larger ObjectId)
+        private List<String> top(int[] scores, byte[] matched, int words, int limit) {
+            Comparator<Integer> order = Comparator.<Integer>comparingInt(ordinal -> scores[ordinal])
+                    .thenComparing(taskIds::get);
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order);
+            for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+                if (matched[ordinal] != words) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(ordinal);
+                } else if (order.compare(ordinal, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(ordinal);
+                }
+            }
+            List<String> ids = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                ids.add(taskIds.get(heap.poll()));
+            }
+            Collections.reverse(ids);
+            return ids;
+        }
+
+        private void index(Task task) {
+            int ordinal = ordinals.computeIfAbsent(task.getId(), taskId -> {
+                taskIds.add(taskId);
+                taskWords.add(null);
+                return taskIds.size() - 1;
+            });
+            unindex(ordinal);
+
+            Map<String, Integer> words = new HashMap<>();
+            addWords(words, task.getTitle(), TITLE_WEIGHT);
+            if (task.getTags() != null) {
+                task.getTags().forEach(tag -> addWords(words, tag, TAG_WEIGHT));
+            }
+            addWords(words, task.getDescription(), DESCRIPTION_WEIGHT);
+
+            words.forEach((word, weight) -> postings.computeIfAbsent(word, key -> new Postings())
+                    .add(ordinal << 2 | weight));
+            taskWords.set(ordinal, words.keySet().toArray(String[]::new));
+            postingCount += words.size();
+        }
+
+        private void unindex(int ordinal) {
+            String[] words = taskWords.get(ordinal);
+            if (words == null) {
+                return;
+            }
+            for (String word : words) {
+                Postings list = postings.get(word);
+                list.remove(ordinal);
+                if (list.size == 0) {
+                    postings.remove(word);
+                }
+            }
+            taskWords.set(ordinal, null);
+            postingCount -= words.length;
+        }
+
+        private static void addWords(Map<String, Integer> words, String text, int weight) {
+            for (String word : words(text)) {
+                words.merge(word, weight, Math::max);
+            }
+        }
+    }
+
+    // Unordered; removal swaps the last posting into the gap
+    private static final class Postings {
+
+        private int[] entries = new int[2];
+        private int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] >>> 2 == ordinal) {
+                    entries[i] = entries[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
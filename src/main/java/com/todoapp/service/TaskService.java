@@ -1,23 +1,119 @@
 package com.todoapp.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.dto.BulkResult;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskEvent;
+import com.todoapp.dto.TaskListQuery;
+import com.todoapp.dto.TaskPage;
 import com.todoapp.dto.TaskRequest;
+import com.todoapp.dto.TaskStatsResponse;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskStats;
+import com.todoapp.model.TaskTombstone;
+import com.todoapp.repository.ChangeSequence;
+import com.todoapp.repository.ReadRouting;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFields;
+import com.todoapp.repository.TaskFilter;
 import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSort;
+import com.todoapp.repository.TaskStatsRepository;
+import com.todoapp.security.RequestRateLimiter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskListCache taskListCache;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskStatsRepository taskStatsRepository;
+    private final ReadRouting readRouting;
+    private final TaskEventBus taskEventBus;
+    private final TaskEventStreams taskEventStreams;
+    private final TaskInsertBatcher taskInsertBatcher;
+    private final RequestRateLimiter requestRateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${todos.page.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${todos.page.max-limit:200}")
+    private int maxPageLimit;
+
+    @Value("${todos.changes.settle-ms:5000}")
+    private long changeSettleMs;
+
+    @Value("${todos.export.batch-size:1000}")
+    private int exportBatchSize;
+
+    @Value("${todos.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${todos.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    private DistributionSummary allListSize;
+    private DistributionSummary pageListSize;
+    private DistributionSummary archiveListSize;
+    private DistributionSummary changesListSize;
+    private DistributionSummary bulkCompleteSize;
+    private DistributionSummary bulkDeleteSize;
+
+    @PostConstruct
+    public void init() {
+        this.allListSize = listSize("all");
+        this.pageListSize = listSize("page");
+        this.archiveListSize = listSize("archive");
+        this.changesListSize = listSize("changes");
+        this.bulkCompleteSize = bulkSize("complete");
+        this.bulkDeleteSize = bulkSize("delete");
+    }
+
+    // Tasks per list response, cached or not
+    private DistributionSummary listSize(String view) {
+        return DistributionSummary.builder("tasks.list.size")
+                .tag("view", view)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Task ids per bulk request let past the rate limit, as sent
+    private DistributionSummary bulkSize(String operation) {
+        return DistributionSummary.builder("tasks.bulk.size")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -27,127 +123,307 @@ public class TaskService {
         throw new RuntimeException("User not authenticated");
     }
 
-    public List<Task> getAllTasks() {
+    // Changes whenever the current user's tasks change, on any instance; served as the list ETag. Kept by
+    // TaskListCache, so Mongo is only read when it has none for the user.
+    public String getTaskListVersion() {
         String userId = getCurrentUserId();
-        log.info("Fetching all tasks for user: {}", userId);
-        return taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return taskListCache.version(userId, () -> taskRepository.findLatestChangeByUserId(userId));
     }
 
-    public Task createTask(TaskRequest request) {
+    public TaskListCache.Versioned<List<Task>> getAllTasks(TaskFields fields, String version) {
         String userId = getCurrentUserId();
-        log.info("Creating task for user: {}", userId);
-
-        Task task = new Task();
-        task.setUserId(userId);
-        task.setTitle(request.getTitle());
-        task.setDescription(request.getDescription());
-        task.setPriority(request.getPriority() != null ? request.getPriority() : "medium");
-        task.setTags(request.getTags());
-        task.setDueDate(request.getDueDate());
-        task.setCompleted(false);
-        task.setArchived(false);
-        task.setCreatedAt(Instant.now());
-
-        Task savedTask = taskRepository.save(task);
-        log.info("Task created with id: {}", savedTask.getId());
-        return savedTask;
+        String viewKey = TaskOperations.allViewKey(fields);
+        TaskListCache.Versioned<List<Task>> tasks = taskListCache.get(userId, version, viewKey, () -> {
+            log.debug("Fetching all tasks for user: {}", userId);
+            return List.copyOf(taskRepository.findAllByUserId(userId, fields));
+        }, List::size);
+        allListSize.record(tasks.value().size());
+        return tasks;
     }
 
-    public Task updateTask(String taskId, TaskRequest request) {
+    public TaskListCache.Versioned<TaskPage> getTaskPage(Integer limit, String after, TaskListQuery query,
+                                                         TaskFields fields, String version) {
         String userId = getCurrentUserId();
-        log.info("Updating task {} for user: {}", taskId, userId);
+        int pageSize = TaskOperations.pageSize(limit, defaultPageLimit, maxPageLimit);
+        TaskCursor cursor = TaskOperations.decodeCursor(after);
+        TaskFilter filter = TaskOperations.toFilter(query);
+
+        String viewKey = TaskOperations.pageViewKey(pageSize, filter, fields, cursor);
+        TaskListCache.Versioned<TaskPage> page = taskListCache.get(userId, version, viewKey, () -> {
+            log.debug("Fetching page of {} tasks for user: {}", pageSize, userId);
+
+            // Read one extra task to learn whether another page exists
+            List<Task> tasks = taskRepository.findPageByUserId(userId, filter, fields, cursor, pageSize + 1);
+            return TaskOperations.toPage(tasks, pageSize, filter.sort());
+        }, loaded -> loaded.getItems().size());
+        pageListSize.record(page.value().getItems().size());
+        return page;
+    }
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    // Archived tasks from the tasks collection and the archive collection, newest first. Not cached.
+    public TaskPage getArchivedTaskPage(Integer limit, String after) {
+        String userId = getCurrentUserId();
+        int pageSize = TaskOperations.pageSize(limit, defaultPageLimit, maxPageLimit);
+        TaskCursor cursor = TaskOperations.decodeCursor(after);
+        log.debug("Fetching page of {} archived tasks for user: {}", pageSize, userId);
+
+        List<Task> tasks = TaskOperations.mergeNewestFirst(
+                taskRepository.findArchivedPageByUserId(userId, cursor, pageSize + 1),
+                taskRepository.findColdPageByUserId(userId, cursor, pageSize + 1),
+                pageSize + 1);
+        TaskPage page = TaskOperations.toPage(tasks, pageSize, TaskSort.CREATED_AT);
+        archiveListSize.record(page.getItems().size());
+        return page;
+    }
 
-        // Verify the task belongs to the current user
-        if (!task.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this task");
-        }
+    // Best matches first; the user's index is built from a cursor over their tasks on first use
+    public List<Task> searchTasks(String query, Integer limit) {
+        String userId = getCurrentUserId();
+        int maxResults = TaskOperations.pageSize(limit, defaultSearchLimit, maxSearchLimit);
+        log.debug("Searching tasks for user: {}", userId);
 
-        // Update fields if provided
-        if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
-            task.setTitle(request.getTitle());
+        List<String> rankedIds = taskSearchIndex.search(userId, query, maxResults,
+                () -> taskRepository.streamByUserId(userId, exportBatchSize));
+        if (rankedIds.isEmpty()) {
+            return List.of();
         }
+        List<ObjectId> ids = rankedIds.stream().map(ObjectId::new).toList();
+        return TaskOperations.inRankOrder(rankedIds, taskRepository.findAllByUserId(userId, ids), userId);
+    }
 
-        if (request.getDescription() != null) {
-            task.setDescription(request.getDescription());
-        }
+    // Read from the user's stats document; the first read after it was lost, or never existed, rebuilds it
+    public TaskStatsResponse getStats() {
+        String userId = getCurrentUserId();
+        TaskStats stats = taskStatsRepository.findForUser(userId).orElseGet(() -> taskStatsRepository.rebuild(userId));
+        return toStatsResponse(userId, stats);
+    }
 
-        if (request.getPriority() != null) {
-            task.setPriority(request.getPriority());
-        }
+    // Recounts from the tasks, replacing counters that drifted (e.g. through writes racing a rebuild)
+    public TaskStatsResponse rebuildStats() {
+        String userId = getCurrentUserId();
+        log.debug("Rebuilding task stats for user: {}", userId);
+        return toStatsResponse(userId, taskStatsRepository.rebuild(userId));
+    }
 
-        if (request.getTags() != null) {
-            task.setTags(request.getTags());
-        }
+    private TaskStatsResponse toStatsResponse(String userId, TaskStats stats) {
+        LocalDateTime now = LocalDateTime.now();
+        String today = TaskStats.dueDayKey(now);
+        long overdueToday = stats.getOpenDue().getOrDefault(today, 0L) > 0
+                ? taskRepository.countOpenDueByUserId(userId, TaskStats.startOfDueDay(today), now)
+                : 0;
+        return TaskStatsDelta.toResponse(stats, today, overdueToday);
+    }
 
-        if (request.getDueDate() != null) {
-            task.setDueDate(request.getDueDate());
+    // A failed $inc leaves the task write in place; the counters drift until the next rebuild
+    private void recordStats(String userId, Map<String, Long> deltas) {
+        try {
+            taskStatsRepository.increment(userId, deltas);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update task stats for user {}", userId, e);
         }
+    }
 
-        if (request.getCompleted() != null) {
-            task.setCompleted(request.getCompleted());
-        }
+    // Tasks changed and deleted after the given sequence. Changes whose write may still be racing a
+    // concurrent one are sent again next time: the high-water mark stops short of them.
+    public TaskChanges getChanges(long since) {
+        String userId = getCurrentUserId();
+        log.debug("Fetching changes since {} for user: {}", since, userId);
+        TaskOperations.checkSince(since);
+
+        // since=0 is a full sync, including tasks written before change sequences existed
+        List<Task> changed = since > 0
+                ? taskRepository.findChangedByUserId(userId, since)
+                : taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        List<TaskTombstone> tombstones = taskRepository.findTombstonesByUserId(userId, since);
+        TaskChanges changes = TaskOperations.toChanges(since, changed, tombstones, changeSettleMs);
+        changesListSize.record(changes.getChanged().size() + changes.getDeleted().size());
+        return changes;
+    }
 
-        if (request.getArchived() != null) {
-            task.setArchived(request.getArchived());
+    // Pushes the user's task changes as they happen, resuming after lastEventId when the client reconnects
+    public SseEmitter streamEvents(String lastEventId) {
+        String userId = getCurrentUserId();
+        log.debug("Opening task event stream for user: {}", userId);
+        return taskEventStreams.open(userId, lastEventId);
+    }
+
+    // Writes every task as newline-delimited JSON straight from the Mongo cursor, so heap use
+    // does not depend on how many tasks the user has
+    public void exportTasks(OutputStream out) throws IOException {
+        String userId = getCurrentUserId();
+        log.debug("Exporting tasks for user: {}", userId);
+
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (Stream<Task> tasks = taskRepository.streamByUserId(userId, exportBatchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % exportBatchSize == 0) {
+                    generator.flush();
+                }
+            }
         }
+        log.debug("Exported {} tasks for user: {}", count, userId);
+    }
+
+    public Task createTask(TaskRequest request) {
+        String userId = getCurrentUserId();
+        log.debug("Creating task for user: {}", userId);
+
+        // With batching on, the batcher stamps the change sequence when the task's batch is flushed
+        Task savedTask = taskInsertBatcher.isEnabled()
+                ? taskInsertBatcher.insert(TaskOperations.newTask(userId, request, 0))
+                : taskRepository.save(TaskOperations.newTask(userId, request, ChangeSequence.next()));
+        taskListCache.invalidate(userId);
+        taskSearchIndex.put(userId, savedTask);
+        recordStats(userId, TaskStatsDelta.of(null, savedTask));
+        readRouting.wrote(userId);
+        taskEventBus.publish(userId, new TaskEvent("created", savedTask.getId(), savedTask));
+        log.debug("Task created with id: {}", savedTask.getId());
+        return savedTask;
+    }
 
-        Task updatedTask = taskRepository.save(task);
-        log.info("Task updated: {}", taskId);
+    public Task updateTask(String taskId, TaskRequest request) {
+        String userId = getCurrentUserId();
+        log.debug("Updating task {} for user: {}", taskId, userId);
+
+        // Only the fields present in the request are $set, in one ownership-scoped findAndModify. It returns
+        // the task as it was, which moves the stats; the updated task is that plus the fields set.
+        Map<String, Object> fields = TaskOperations.updatedFields(request);
+        if (fields.isEmpty()) {
+            return taskRepository.findById(taskId).filter(task -> userId.equals(task.getUserId()))
+                    .orElseThrow(() -> new RuntimeException("Task not found"));
+        }
+        long changeSeq = ChangeSequence.next();
+        Task previous = taskRepository.setFieldsByUserId(userId, taskId, fields, changeSeq);
+        if (previous == null) {
+            throw new RuntimeException("Task not found");
+        }
+        Task before = TaskStatsDelta.counted(previous);
+        Task updatedTask = TaskOperations.applied(previous, fields, changeSeq);
+        taskListCache.invalidate(userId);
+        taskSearchIndex.put(userId, updatedTask);
+        if (TaskStatsDelta.affects(fields)) {
+            recordStats(userId, TaskStatsDelta.of(before, updatedTask));
+        }
+        readRouting.wrote(userId);
+        taskEventBus.publish(userId, new TaskEvent("updated", taskId, updatedTask));
+        log.debug("Task updated: {}", taskId);
         return updatedTask;
     }
 
     public Task toggleTask(String taskId) {
         String userId = getCurrentUserId();
-        log.info("Toggling task {} for user: {}", taskId, userId);
-
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        log.debug("Toggling task {} for user: {}", taskId, userId);
 
-        // Verify the task belongs to the current user
-        if (!task.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to toggle this task");
+        Task updatedTask = taskRepository.toggleCompletedByUserId(userId, taskId);
+        if (updatedTask == null) {
+            throw new RuntimeException("Task not found");
         }
-
-        task.setCompleted(!task.isCompleted());
-        Task updatedTask = taskRepository.save(task);
-        log.info("Task toggled: {} - completed: {}", taskId, updatedTask.isCompleted());
+        taskListCache.invalidate(userId);
+        recordStats(userId, TaskStatsDelta.of(
+                TaskStatsDelta.withCompleted(updatedTask, !updatedTask.isCompleted()), updatedTask));
+        readRouting.wrote(userId);
+        taskEventBus.publish(userId, new TaskEvent("toggled", taskId, updatedTask));
+        log.debug("Task toggled: {} - completed: {}", taskId, updatedTask.isCompleted());
         return updatedTask;
     }
 
     public void deleteTask(String taskId) {
         String userId = getCurrentUserId();
-        log.info("Deleting task {} for user: {}", taskId, userId);
-
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        log.debug("Deleting task {} for user: {}", taskId, userId);
 
-        // Verify the task belongs to the current user
-        if (!task.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to delete this task");
+        Task deletedTask = taskRepository.deleteByUserId(userId, taskId);
+        if (deletedTask == null) {
+            deletedTask = taskRepository.deleteArchivedByUserId(userId, taskId);
         }
-
-        taskRepository.delete(task);
-        log.info("Task deleted: {}", taskId);
+        if (deletedTask == null) {
+            throw new RuntimeException("Task not found");
+        }
+        taskListCache.invalidate(userId);
+        taskSearchIndex.remove(userId, taskId);
+        recordStats(userId, TaskStatsDelta.of(deletedTask, null));
+        readRouting.wrote(userId);
+        taskEventBus.publish(userId, new TaskEvent("deleted", taskId, null));
+        log.debug("Task deleted: {}", taskId);
     }
 
     public Task archiveTask(String taskId) {
         String userId = getCurrentUserId();
-        log.info("Archiving task {} for user: {}", taskId, userId);
-
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        log.debug("Archiving task {} for user: {}", taskId, userId);
+
+        // A task the archiver has moved is no longer in tasks; archiving it again restores it
+        Task updatedTask = taskRepository.toggleArchivedByUserId(userId, taskId);
+        if (updatedTask == null) {
+            updatedTask = taskRepository.restoreArchivedByUserId(userId, taskId);
+            if (updatedTask == null) {
+                throw new RuntimeException("Task not found");
+            }
+            taskSearchIndex.put(userId, updatedTask);
+        }
+        taskListCache.invalidate(userId);
+        recordStats(userId, TaskStatsDelta.of(
+                TaskStatsDelta.withArchived(updatedTask, !updatedTask.isArchived()), updatedTask));
+        readRouting.wrote(userId);
+        taskEventBus.publish(userId, new TaskEvent("archived", taskId, updatedTask));
+        log.debug("Task archived: {} - archived: {}", taskId, updatedTask.isArchived());
+        return updatedTask;
+    }
 
-        // Verify the task belongs to the current user
-        if (!task.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to archive this task");
+    // Marks the tasks completed with one updateMany; ownership is part of the filter. The repository reports
+    // the tasks the write completed and what they counted for in the stats before it. Moved tasks are read-only
+    // until restored, as with a single toggle.
+    public BulkResult completeTasks(List<String> taskIds) {
+        String userId = getCurrentUserId();
+        log.debug("Completing {} tasks for user: {}", taskIds.size(), userId);
+        requestRateLimiter.acquire(RequestRateLimiter.Route.BULK, RequestRateLimiter.userClient(userId),
+                taskIds.size());
+        bulkCompleteSize.record(taskIds.size());
+
+        List<String> failedIds = new ArrayList<>();
+        Set<ObjectId> ids = TaskOperations.toObjectIds(taskIds, failedIds);
+        List<Task> completed = ids.isEmpty() ? List.of() : taskRepository.completeAllByUserId(userId, ids);
+
+        if (!completed.isEmpty()) {
+            taskListCache.invalidate(userId);
+            TaskStatsDelta stats = new TaskStatsDelta();
+            completed.forEach(task -> stats.add(task, TaskStatsDelta.withCompleted(task, true)));
+            recordStats(userId, stats.deltas());
+            readRouting.wrote(userId);
+            completed.forEach(task -> taskEventBus.publish(userId, new TaskEvent("completed", task.getId(), null)));
         }
+        return TaskOperations.partition(ids, completed.stream().map(Task::getId).toList(), failedIds);
+    }
 
-        task.setArchived(!task.isArchived());
-        Task updatedTask = taskRepository.save(task);
-        log.info("Task archived: {} - archived: {}", taskId, updatedTask.isArchived());
-        return updatedTask;
+    // Deletes the tasks with one deleteMany per collection, including tasks moved to the archive; the
+    // repository reports the tasks it deleted and what they counted for in the stats
+    public BulkResult deleteTasks(List<String> taskIds) {
+        String userId = getCurrentUserId();
+        log.debug("Deleting {} tasks for user: {}", taskIds.size(), userId);
+        requestRateLimiter.acquire(RequestRateLimiter.Route.BULK, RequestRateLimiter.userClient(userId),
+                taskIds.size());
+        bulkDeleteSize.record(taskIds.size());
+
+        List<String> failedIds = new ArrayList<>();
+        Set<ObjectId> ids = TaskOperations.toObjectIds(taskIds, failedIds);
+        List<Task> deleted = ids.isEmpty() ? List.of() : taskRepository.deleteAllByUserId(userId, ids);
+        List<String> deletedIds = deleted.stream().map(Task::getId).toList();
+
+        if (!deletedIds.isEmpty()) {
+            taskListCache.invalidate(userId);
+            deletedIds.forEach(taskId -> taskSearchIndex.remove(userId, taskId));
+            TaskStatsDelta stats = new TaskStatsDelta();
+            deleted.forEach(task -> stats.add(task, null));
+            recordStats(userId, stats.deltas());
+            readRouting.wrote(userId);
+            deletedIds.forEach(taskId -> taskEventBus.publish(userId, new TaskEvent("deleted", taskId, null)));
+        }
+        return TaskOperations.partition(ids, deletedIds, failedIds);
     }
-}
\ No newline at end of file
+}
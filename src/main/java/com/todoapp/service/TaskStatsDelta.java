@@ -0,0 +1,92 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskStatsResponse;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskStats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Stats counters a write moves: what the task counted for before it, subtracted, plus what it counts for
+// after, as the dotted paths of one $inc. A task that did not exist before, or no longer does, is null.
+final class TaskStatsDelta {
+
+    private static final Set<String> COUNTED_FIELDS = Set.of("completed", "archived", "priority", "dueDate");
+
+    private final Map<String, Long> deltas = new HashMap<>();
+
+    static Map<String, Long> of(Task before, Task after) {
+        return new TaskStatsDelta().add(before, after).deltas();
+    }
+
+    static boolean affects(Map<String, Object> updatedFields) {
+        return updatedFields.keySet().stream().anyMatch(COUNTED_FIELDS::contains);
+    }
+
+    static Task withCompleted(Task task, boolean completed) {
+        Task copy = counted(task);
+        copy.setCompleted(completed);
+        return copy;
+    }
+
+    static Task withArchived(Task task, boolean archived) {
+        Task copy = counted(task);
+        copy.setArchived(archived);
+        return copy;
+    }
+
+    TaskStatsDelta add(Task before, Task after) {
+        count(before, -1);
+        count(after, 1);
+        return this;
+    }
+
+    Map<String, Long> deltas() {
+        Map<String, Long> nonZero = new HashMap<>(deltas);
+        nonZero.values().removeIf(delta -> delta == 0);
+        return nonZero;
+    }
+
+    // overdueToday covers the open tasks due earlier today, which openDue cannot tell apart from later ones
+    static TaskStatsResponse toResponse(TaskStats stats, String today, long overdueToday) {
+        long overdue = overdueToday;
+        for (Map.Entry<String, Long> day : stats.getOpenDue().entrySet()) {
+            if (day.getKey().compareTo(today) < 0) {
+                overdue += day.getValue();
+            }
+        }
+        Map<String, Long> byPriority = new TreeMap<>(stats.getPriorities());
+        byPriority.values().removeIf(count -> count <= 0);
+        return new TaskStatsResponse(stats.getTotal(), stats.getCompleted(), stats.getArchived(), overdue,
+                byPriority);
+    }
+
+    private void count(Task task, long sign) {
+        if (task == null) {
+            return;
+        }
+        deltas.merge("total", sign, Long::sum);
+        if (task.isCompleted()) {
+            deltas.merge("completed", sign, Long::sum);
+        }
+        if (task.isArchived()) {
+            deltas.merge("archived", sign, Long::sum);
+        }
+        deltas.merge("priorities." + TaskStats.priorityKey(task.getPriority()), sign, Long::sum);
+        if (!task.isCompleted() && !task.isArchived() && task.getDueDate() != null) {
+            deltas.merge("openDue." + TaskStats.dueDayKey(task.getDueDate()), sign, Long::sum);
+        }
+    }
+
+    static Task counted(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setCompleted(task.isCompleted());
+        copy.setArchived(task.isArchived());
+        copy.setPriority(task.getPriority());
+        copy.setDueDate(task.getDueDate());
+        return copy;
+    }
+}
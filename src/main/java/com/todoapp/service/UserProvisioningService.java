@@ -0,0 +1,129 @@
+package com.todoapp.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.todoapp.dto.BulkRegisterResult;
+import com.todoapp.dto.RegisterRequest;
+import com.todoapp.model.User;
+import com.todoapp.security.PasswordHasher;
+import com.todoapp.security.UserStateCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Admin onboarding of many accounts at once: passwords are hashed in parallel on the hashing pool and all
+// users go to Mongo in one unordered bulk insert. The unique username index decides which ones already
+// exist, so every entry gets its own outcome and one conflict never aborts the rest.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class UserProvisioningService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordHasher passwordHasher;
+    private final UserStateCache userStateCache;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+
+    private DistributionSummary bulkSize;
+
+    @PostConstruct
+    public void init() {
+        this.bulkSize = DistributionSummary.builder("users.bulk.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public BulkRegisterResult registerAll(List<RegisterRequest> requests) {
+        bulkSize.record(requests.size());
+
+        BulkRegisterResult.Outcome[] outcomes = new BulkRegisterResult.Outcome[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterRequest request = requests.get(i);
+            if (request == null) {
+                outcomes[i] = failure(null, "Invalid entry");
+                continue;
+            }
+            String username = request.getUsername() != null ? request.getUsername().trim() : null;
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                outcomes[i] = failure(username, violations.iterator().next().getMessage());
+            } else if (!usernames.add(username)) {
+                outcomes[i] = failure(username, "Duplicate username in request");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insert(requests, accepted, outcomes);
+        }
+
+        int created = (int) Arrays.stream(outcomes).filter(BulkRegisterResult.Outcome::isSuccess).count();
+        log.info("Bulk registration: {} created, {} failed", created, outcomes.length - created);
+        return new BulkRegisterResult(created, outcomes.length - created, Arrays.asList(outcomes));
+    }
+
+    private void insert(List<RegisterRequest> requests, List<Integer> accepted,
+                        BulkRegisterResult.Outcome[] outcomes) {
+        List<String> hashes = passwordHasher.encodeAll(accepted.stream()
+                .map(i -> requests.get(i).getPassword())
+                .toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            User user = new User();
+            user.setUsername(requests.get(accepted.get(j)).getUsername().trim());
+            user.setPassword(hashes.get(j));
+            user.setCreatedAt(now);
+            users.add(user);
+        }
+
+        // Error indexes refer to positions in the insert, not in the request
+        String[] errors = new String[users.size()];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors[error.getIndex()] = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                        ? "Username already exists"
+                        : "Registration failed";
+            }
+        }
+
+        for (int j = 0; j < users.size(); j++) {
+            String username = users.get(j).getUsername();
+            if (errors[j] == null) {
+                userStateCache.invalidate(username);
+                outcomes[accepted.get(j)] = new BulkRegisterResult.Outcome(username, true, "Registration successful!");
+            } else {
+                outcomes[accepted.get(j)] = failure(username, errors[j]);
+            }
+        }
+    }
+
+    private static BulkRegisterResult.Outcome failure(String username, String message) {
+        return new BulkRegisterResult.Outcome(username, false, message);
+    }
+}
@@ -1,11 +1,32 @@
 package com.todoapp;
 
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
 
 @SpringBootTest
 class TodoBackendApplicationTests {
 
+	// Startup ensures the unique username index, so the context needs a Mongo to talk to
+	private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+
+	@DynamicPropertySource
+	static void mongo(DynamicPropertyRegistry registry) {
+		InetSocketAddress address = MONGO.bind();
+		registry.add("spring.data.mongodb.uri", () -> "mongodb://" + address.getHostString() + ":" + address.getPort());
+	}
+
+	@AfterAll
+	static void stopMongo() {
+		MONGO.shutdownNow();
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,105 @@
+package com.todoapp.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.CollectionOptions;
+import de.bwaldvogel.mongo.backend.CursorRegistry;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import de.bwaldvogel.mongo.backend.memory.MemoryCollection;
+import de.bwaldvogel.mongo.backend.memory.MemoryDatabase;
+import de.bwaldvogel.mongo.bson.Document;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+// In-process MongoDB stand-in (mongo-java-server, in memory) for running the whole app on one box.
+// The stand-in rejects update pipelines, which the toggle and archive endpoints send, so this adds just
+// enough of them for those: $set stages whose values are literals or {$not: ["$field"]}.
+final class MongoStandIn implements AutoCloseable {
+
+    private final MongoServer server = new MongoServer(new PipelineUpdateBackend());
+
+    String start() {
+        InetSocketAddress address = server.bind();
+        return "mongodb://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+
+    private static final class PipelineUpdateBackend extends MemoryBackend {
+
+        @Override
+        public MemoryDatabase openOrCreateDatabase(String databaseName) {
+            return new PipelineUpdateDatabase(databaseName, getCursorRegistry());
+        }
+    }
+
+    private static final class PipelineUpdateDatabase extends MemoryDatabase {
+
+        PipelineUpdateDatabase(String databaseName, CursorRegistry cursorRegistry) {
+            super(databaseName, cursorRegistry);
+        }
+
+        @Override
+        protected MemoryCollection openOrCreateCollection(String collectionName, CollectionOptions options) {
+            return new PipelineUpdateCollection(this, collectionName, options, cursorRegistry);
+        }
+    }
+
+    private static final class PipelineUpdateCollection extends MemoryCollection {
+
+        PipelineUpdateCollection(MemoryDatabase database, String collectionName, CollectionOptions options,
+                                 CursorRegistry cursorRegistry) {
+            super(database, collectionName, options, cursorRegistry);
+        }
+
+        // Evaluated against the current document and replayed as a plain $set; holding the collection
+        // lock across both keeps it atomic like the real thing
+        @Override
+        public synchronized Document findAndModify(Document command) {
+            if (!(command.get("update") instanceof List<?> pipeline)) {
+                return super.findAndModify(command);
+            }
+
+            Document filter = (Document) command.getOrDefault("query", new Document());
+            Document current = null;
+            for (Document document : handleQuery(filter)) {
+                current = document;
+                break;
+            }
+
+            Document set = new Document();
+            for (Object stage : pipeline) {
+                Document fields = (Document) ((Document) stage).get("$set");
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    set.put(field.getKey(), evaluate(field.getValue(), current));
+                }
+            }
+
+            Document rewritten = new Document(command);
+            rewritten.put("update", new Document("$set", set));
+            return super.findAndModify(rewritten);
+        }
+
+        private static Object evaluate(Object expression, Document current) {
+            if (expression instanceof Document operator && operator.containsKey("$not")) {
+                Object operand = operator.get("$not");
+                if (operand instanceof List<?> operands) {
+                    operand = operands.get(0);
+                }
+                Object value = evaluate(operand, current);
+                return !(value instanceof Boolean bool && bool);
+            }
+            if (expression instanceof Document operator && operator.containsKey("$literal")) {
+                return operator.get("$literal");
+            }
+            if (expression instanceof String path && path.startsWith("$")) {
+                return current != null ? current.get(path.substring(1)) : null;
+            }
+            return expression;
+        }
+    }
+}
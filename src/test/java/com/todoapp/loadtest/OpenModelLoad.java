@@ -0,0 +1,145 @@
+package com.todoapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator. Requests arrive as a Poisson process at a fixed rate whether or not earlier ones
+// have finished, and each latency is measured from the request's scheduled arrival, so a server that stalls
+// shows up as queueing delay rather than as fewer, faster samples (no coordinated omission).
+final class OpenModelLoad {
+
+    // Microseconds, up to one minute, three significant digits
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final NavigableMap<Integer, Operation> mix = new TreeMap<>();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private int totalWeight;
+    private int maxInFlight;
+
+    // The future completes with the HTTP status; anything but 2xx counts as an error
+    interface Operation {
+        CompletableFuture<Integer> send();
+    }
+
+    record Result(String endpoint, Histogram latencyMicros, long errors, long dropped, double durationSeconds) {
+
+        long requests() {
+            return latencyMicros.getTotalCount() + dropped;
+        }
+
+        double throughput() {
+            return latencyMicros.getTotalCount() / durationSeconds;
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) (errors + dropped) / requests();
+        }
+    }
+
+    private static final class Endpoint {
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    OpenModelLoad add(String endpoint, int weight, Operation operation) {
+        endpoints.put(endpoint, new Endpoint());
+        if (weight > 0) {
+            totalWeight += weight;
+            mix.put(totalWeight, new NamedOperation(endpoint, operation));
+        }
+        return this;
+    }
+
+    // Blocks for warmup + duration; only arrivals scheduled after the warmup are recorded. Arrivals beyond
+    // maxInFlight outstanding requests are not sent and count as dropped.
+    Map<String, Result> run(double ratePerSecond, Duration warmup, Duration duration, int maxInFlight,
+                            Duration drainTimeout) {
+        this.maxInFlight = maxInFlight;
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long measureFromMillis = System.currentTimeMillis() + warmup.toMillis();
+
+        long arrival = start;
+        while (arrival < end) {
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(arrival, arrival >= measureFrom);
+            arrival += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+        }
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        double seconds = duration.toNanos() / 1e9;
+        endpoints.forEach((name, endpoint) -> {
+            Histogram latencyMicros = endpoint.latencyMicros.copy();
+            latencyMicros.setStartTimeStamp(measureFromMillis);
+            latencyMicros.setEndTimeStamp(measureFromMillis + duration.toMillis());
+            results.put(name, new Result(name, latencyMicros, endpoint.errors.sum(), endpoint.dropped.sum(),
+                    seconds));
+        });
+        return results;
+    }
+
+    private void dispatch(long scheduledAt, boolean measured) {
+        NamedOperation operation = (NamedOperation) mix.higherEntry(
+                ThreadLocalRandom.current().nextInt(totalWeight)).getValue();
+        Endpoint endpoint = endpoints.get(operation.endpoint());
+
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            if (measured) {
+                endpoint.dropped.increment();
+            }
+            return;
+        }
+
+        CompletableFuture<Integer> response;
+        try {
+            response = operation.send();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((status, error) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+            endpoint.latencyMicros.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+            if (error != null || status < 200 || status >= 300) {
+                endpoint.errors.increment();
+            }
+        });
+    }
+
+    private record NamedOperation(String endpoint, Operation delegate) implements Operation {
+
+        @Override
+        public CompletableFuture<Integer> send() {
+            return delegate.send();
+        }
+    }
+}
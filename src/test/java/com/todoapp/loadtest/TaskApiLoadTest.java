@@ -0,0 +1,305 @@
+package com.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// End-to-end load test: the whole app on a random port against an in-process MongoDB stand-in (or a real
+// MongoDB via loadtest.mongodb-uri), driven by an open-model mix of the auth and task endpoints.
+// Writes per-endpoint HdrHistogram percentile distributions and an interval log to target/loadtest and
+// fails when any SLO in loadtest.properties is missed. Run with mvn -Ploadtest test.
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.com.todoapp=WARN"
+)
+class TaskApiLoadTest {
+
+    private static final Properties CONFIG = config();
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+    private static final String PASSWORD = "load-test-password";
+
+    private static MongoStandIn mongo;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<LoadUser> users = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    // Seeded tasks are only toggled and completed; bulk deletes only remove tasks created during the run,
+    // so no request races a delete of its own task
+    private record LoadUser(String username, String token, List<String> seededIds, List<String> createdIds) {
+    }
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String uri = CONFIG.getProperty("loadtest.mongodb-uri", "");
+        if (uri.isBlank()) {
+            mongo = new MongoStandIn();
+            uri = mongo.start();
+        }
+        String mongoUri = uri;
+        registry.add("spring.data.mongodb.uri", () -> mongoUri);
+        registry.add("spring.data.mongodb.database", () -> "loadtest");
+        // Every load user logs in from this one address
+        registry.add("todos.rate-limit.enabled", () -> "false");
+        registry.add("jwt.secret", () -> "bG9hZC10ZXN0LW9ubHktc2lnbmluZy1rZXktbm90LWZvci1wcm9kdWN0aW9uLXVzZQ");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    @BeforeEach
+    void createUsers() throws Exception {
+        int count = Integer.parseInt(CONFIG.getProperty("loadtest.users"));
+        for (int i = 0; i < count; i++) {
+            String username = "load-user-" + i;
+            post("/api/register", null, credentials(username));
+            String token = objectMapper.readTree(post("/api/login", null, credentials(username)).body())
+                    .get("token").asText();
+
+            List<String> seeded = new ArrayList<>();
+            for (int t = 0; t < 20; t++) {
+                seeded.add(id(post("/api/todos", token, "{\"title\":\"seeded task " + t + "\"}")));
+            }
+            users.add(new LoadUser(username, token, List.copyOf(seeded),
+                    Collections.synchronizedList(new ArrayList<>())));
+        }
+    }
+
+    @Test
+    void meetsLatencySlos() throws IOException {
+        OpenModelLoad load = new OpenModelLoad()
+                .add("register", weight("register"), () -> send(request("/api/register", null)
+                        .POST(body(credentials("load-new-" + sequence.incrementAndGet())))))
+                .add("login", weight("login"), () -> send(request("/api/login", null)
+                        .POST(body(credentials(randomUser().username())))))
+                .add("list", weight("list"), () -> send(request("/api/todos?limit=50", randomUser().token())
+                        .GET()))
+                .add("create", weight("create"), this::create)
+                .add("toggle", weight("toggle"), () -> {
+                    LoadUser user = randomUser();
+                    return send(request("/api/todos/" + pick(user.seededIds()) + "/toggle", user.token())
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                })
+                .add("bulk-complete", weight("bulk-complete"), () -> {
+                    LoadUser user = randomUser();
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 10; i++) {
+                        ids.add(pick(user.seededIds()));
+                    }
+                    return send(request("/api/todos/bulk/complete", user.token()).POST(body(taskIds(ids))));
+                })
+                .add("bulk-delete", weight("bulk-delete"), () -> {
+                    LoadUser user = randomUser();
+                    List<String> ids = new ArrayList<>();
+                    synchronized (user.createdIds()) {
+                        while (ids.size() < 3 && !user.createdIds().isEmpty()) {
+                            ids.add(user.createdIds().remove(0));
+                        }
+                    }
+                    return send(request("/api/todos/bulk/delete", user.token())
+                            .method("DELETE", body(taskIds(ids))));
+                });
+
+        Map<String, OpenModelLoad.Result> results = load.run(
+                Double.parseDouble(CONFIG.getProperty("loadtest.rate")),
+                Duration.ofSeconds(Long.parseLong(CONFIG.getProperty("loadtest.warmup-seconds"))),
+                Duration.ofSeconds(Long.parseLong(CONFIG.getProperty("loadtest.duration-seconds"))),
+                Integer.parseInt(CONFIG.getProperty("loadtest.max-in-flight")),
+                Duration.ofSeconds(30));
+
+        String summary = report(results);
+        System.out.println(summary);
+        assertThat(sloBreaches(results)).as(summary).isEmpty();
+    }
+
+    private CompletableFuture<Integer> create() {
+        LoadUser user = randomUser();
+        HttpRequest request = request("/api/todos", user.token())
+                .POST(body("{\"title\":\"load task " + sequence.incrementAndGet() + "\"}"))
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() == 201) {
+                user.createdIds().add(id(response));
+            }
+            return response.statusCode();
+        });
+    }
+
+    private List<String> sloBreaches(Map<String, OpenModelLoad.Result> results) {
+        List<String> breaches = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(CONFIG.getProperty("slo.max-error-rate"));
+        for (OpenModelLoad.Result result : results.values()) {
+            if (result.errorRate() > maxErrorRate) {
+                breaches.add(String.format("%s error rate %.4f > %.4f", result.endpoint(), result.errorRate(),
+                        maxErrorRate));
+            }
+            for (String percentile : List.of("p50", "p95", "p99", "p999")) {
+                String limit = CONFIG.getProperty("slo." + result.endpoint() + "." + percentile);
+                if (limit == null) {
+                    continue;
+                }
+                double actualMs = percentileMs(result, percentile);
+                if (actualMs > Double.parseDouble(limit)) {
+                    breaches.add(String.format("%s %s %.1f ms > %s ms", result.endpoint(), percentile, actualMs,
+                            limit));
+                }
+            }
+        }
+        return breaches;
+    }
+
+    // Writes <endpoint>.hgrm percentile distributions (milliseconds) and latency.hlog with one tagged
+    // histogram per endpoint (microseconds); returns the summary table
+    private String report(Map<String, OpenModelLoad.Result> results) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        StringBuilder summary = new StringBuilder(String.format("%n%-14s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms"));
+
+        try (PrintStream log = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve("latency.hlog")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(log);
+            logWriter.outputLogFormatVersion();
+            results.values().stream().findFirst().ifPresent(first -> {
+                logWriter.setBaseTime(first.latencyMicros().getStartTimeStamp());
+                logWriter.outputStartTime(first.latencyMicros().getStartTimeStamp());
+            });
+            logWriter.outputLegend();
+
+            for (OpenModelLoad.Result result : results.values()) {
+                try (PrintStream hgrm = new PrintStream(
+                        Files.newOutputStream(REPORT_DIR.resolve(result.endpoint() + ".hgrm")))) {
+                    result.latencyMicros().outputPercentileDistribution(hgrm, 1000.0);
+                }
+                result.latencyMicros().setTag(result.endpoint());
+                logWriter.outputIntervalHistogram(result.latencyMicros());
+
+                summary.append(String.format("%-14s %9d %8.1f %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        result.endpoint(), result.requests(), result.throughput(),
+                        result.errors() + result.dropped(), percentileMs(result, "p50"),
+                        percentileMs(result, "p95"), percentileMs(result, "p99"), percentileMs(result, "p999"),
+                        result.latencyMicros().getMaxValue() / 1000.0));
+            }
+        }
+        Files.writeString(REPORT_DIR.resolve("summary.txt"), summary);
+        return summary.toString();
+    }
+
+    private static double percentileMs(OpenModelLoad.Result result, String percentile) {
+        double value = switch (percentile) {
+            case "p50" -> 50.0;
+            case "p95" -> 95.0;
+            case "p99" -> 99.0;
+            case "p999" -> 99.9;
+            default -> throw new IllegalArgumentException(percentile);
+        };
+        return result.latencyMicros().getValueAtPercentile(value) / 1000.0;
+    }
+
+    private CompletableFuture<Integer> send(HttpRequest.Builder request) {
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpResponse<String> post(String path, String token, String json) throws Exception {
+        return http.send(request(path, token).POST(body(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private String taskIds(List<String> ids) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("taskIds", ids));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String id(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body()).get("id").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LoadUser randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    private static String pick(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static int weight(String endpoint) {
+        return Integer.parseInt(CONFIG.getProperty("loadtest.mix." + endpoint));
+    }
+
+    private static Properties config() {
+        Properties config = new Properties();
+        try (InputStream in = TaskApiLoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            config.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read loadtest.properties", e);
+        }
+        for (String key : config.stringPropertyNames()) {
+            String override = System.getProperty(key);
+            if (override != null) {
+                config.setProperty(key, override);
+            }
+        }
+        return config;
+    }
+}
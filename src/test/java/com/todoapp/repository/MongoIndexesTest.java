@@ -0,0 +1,72 @@
+package com.todoapp.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.todoapp.model.User;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MongoIndexesTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "todoapp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void onlyTheUniqueUsernameIndexIsRequired() {
+        List<IndexDefinitionHolder> required = MongoIndexes.required(mongoTemplate.getConverter().getMappingContext());
+
+        assertEquals(1, required.size());
+        assertEquals("users", required.get(0).getCollection());
+        assertEquals(new Document("username", 1), required.get(0).getIndexKeys());
+    }
+
+    @Test
+    void requiredIndexRejectsTakenNames() {
+        new MongoIndexes(mongoTemplate).ensureRequired();
+
+        mongoTemplate.insert(user("alice"));
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(user("alice")));
+    }
+
+    @Test
+    void duplicatesAlreadyStoredFailStartup() {
+        mongoTemplate.insert(user("alice"));
+        mongoTemplate.insert(user("alice"));
+
+        assertThrows(IllegalStateException.class, () -> new MongoIndexes(mongoTemplate).ensureRequired());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadRoutingWriteTimeTest {
+
+    private static ReadRouting.WriteTime at(int seconds, int increment) {
+        BsonDocument clusterTime = new BsonDocument("clusterTime", new BsonTimestamp(seconds, increment))
+                .append("signature", new BsonDocument("hash", new BsonBinary(new byte[20]))
+                        .append("keyId", new BsonInt64(7)));
+        return new ReadRouting.WriteTime(new BsonTimestamp(seconds, increment), clusterTime);
+    }
+
+    @Test
+    void tokenRoundTripsWithClusterTime() {
+        ReadRouting.WriteTime written = at(1_700_000_000, 3);
+
+        String token = written.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token is unpadded base64url: " + token);
+        assertEquals(written, ReadRouting.WriteTime.decode(token));
+    }
+
+    @Test
+    void tokenRoundTripsWithoutClusterTime() {
+        ReadRouting.WriteTime written = new ReadRouting.WriteTime(new BsonTimestamp(1_700_000_000, 1), null);
+
+        assertEquals(written, ReadRouting.WriteTime.decode(written.encode()));
+    }
+
+    @Test
+    void malformedTokenIsABadRequest() {
+        assertThrows(BadRequestException.class, () -> ReadRouting.WriteTime.decode("not a token"));
+        assertThrows(BadRequestException.class, () -> ReadRouting.WriteTime.decode("AAAA"));
+    }
+
+    @Test
+    void laterPicksTheNewerOperationTime() {
+        ReadRouting.WriteTime earlier = at(1_700_000_000, 9);
+        ReadRouting.WriteTime sameSecondLater = at(1_700_000_000, 10);
+        ReadRouting.WriteTime nextSecond = at(1_700_000_001, 1);
+
+        assertSame(sameSecondLater, ReadRouting.WriteTime.later(earlier, sameSecondLater));
+        assertSame(sameSecondLater, ReadRouting.WriteTime.later(sameSecondLater, earlier));
+        assertSame(nextSecond, ReadRouting.WriteTime.later(sameSecondLater, nextSecond));
+        assertSame(earlier, ReadRouting.WriteTime.later(earlier, at(1_700_000_000, 9)));
+    }
+
+    @Test
+    void laterIgnoresAMissingSide() {
+        ReadRouting.WriteTime written = at(1_700_000_000, 1);
+
+        assertSame(written, ReadRouting.WriteTime.later(null, written));
+        assertSame(written, ReadRouting.WriteTime.later(written, null));
+        assertNull(ReadRouting.WriteTime.later(null, null));
+    }
+}
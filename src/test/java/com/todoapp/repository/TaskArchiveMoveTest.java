@@ -0,0 +1,99 @@
+package com.todoapp.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.todoapp.model.Task;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskArchiveMoveTest {
+
+    private static final Instant CUTOFF = Instant.now().minus(Duration.ofDays(30));
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private TaskRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "todoapp");
+        repository = new TaskRepositoryImpl(mongoTemplate, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void legacyArchivedTasksAreMoved() {
+        // Written before updatedAt and changeSeq existed
+        ObjectId legacy = insert(new Document("archived", true));
+        ObjectId old = insert(new Document("archived", true)
+                .append("updatedAt", Date.from(CUTOFF.minusSeconds(60))).append("changeSeq", 5L));
+        ObjectId recent = insert(new Document("archived", true)
+                .append("updatedAt", Date.from(CUTOFF.plusSeconds(60))).append("changeSeq", 6L));
+        ObjectId active = insert(new Document("archived", false));
+
+        List<Task> moved = repository.moveArchived(CUTOFF, 10);
+
+        assertEquals(List.of(legacy.toHexString(), old.toHexString()), moved.stream().map(Task::getId).toList());
+        assertEquals(List.of(recent, active), ids(tasks()));
+        assertEquals(List.of(legacy, old), ids(archive()));
+        assertTrue(archive().find().into(new ArrayList<>()).stream()
+                .allMatch(document -> document.getLong("changeSeq") > 6L));
+    }
+
+    @Test
+    void legacyTaskWrittenDuringTheMoveStays() {
+        ObjectId legacy = insert(new Document("archived", true));
+        Task read = mongoTemplate.findById(legacy, Task.class);
+        tasks().updateOne(new Document("_id", legacy), new Document("$set", new Document("changeSeq", 9L)));
+
+        assertEquals(0, mongoTemplate.remove(TaskQueries.unchangedSince(read), Task.class).getDeletedCount());
+        assertEquals(List.of(legacy), ids(tasks()));
+        assertEquals(1, mongoTemplate.remove(TaskQueries.unchangedSince(mongoTemplate.findById(legacy, Task.class)),
+                Task.class).getDeletedCount());
+    }
+
+    private ObjectId insert(Document task) {
+        ObjectId id = new ObjectId();
+        tasks().insertOne(task.append("_id", id).append("userId", "alice").append("title", "task"));
+        return id;
+    }
+
+    private MongoCollection<Document> tasks() {
+        return mongoTemplate.getCollection("tasks");
+    }
+
+    private MongoCollection<Document> archive() {
+        return mongoTemplate.getCollection(TaskQueries.ARCHIVE_COLLECTION);
+    }
+
+    private static List<ObjectId> ids(MongoCollection<Document> collection) {
+        return collection.find().sort(new Document("_id", 1)).map(document -> document.getObjectId("_id"))
+                .into(new ArrayList<>());
+    }
+}
@@ -0,0 +1,109 @@
+package com.todoapp.repository;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.todoapp.model.Task;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Round trips per bulk write, counted as the commands the driver sends
+class TaskBulkWriteTest {
+
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<>());
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private TaskRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHostString() + ":" + address.getPort()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        commands.add(event.getCommandName() + " " + event.getCommand().getString(
+                                event.getCommandName()).getValue());
+                    }
+                })
+                .build());
+        mongoTemplate = new MongoTemplate(client, "todoapp");
+        repository = new TaskRepositoryImpl(mongoTemplate, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void completeReadsOnceAndWritesOnce() {
+        List<ObjectId> ids = List.of(insert("tasks", false), insert("tasks", true), insert("tasks", false));
+        commands.clear();
+
+        List<Task> completed = repository.completeAllByUserId("alice", ids);
+
+        assertEquals(3, completed.size());
+        assertEquals(List.of("find tasks", "update tasks"), commands);
+    }
+
+    @Test
+    void deleteOfHotTasksIsFourRoundTrips() {
+        List<ObjectId> ids = List.of(insert("tasks", false), insert("tasks", true));
+        commands.clear();
+
+        List<Task> deleted = repository.deleteAllByUserId("alice", ids);
+
+        assertEquals(2, deleted.size());
+        assertEquals(List.of("find tasks", "delete tasks", "delete tasks_archive", "update task_tombstones"),
+                commands);
+    }
+
+    @Test
+    void deleteReachesMovedTasksWithTwoMore() {
+        List<ObjectId> ids = List.of(insert("tasks", false), insert(TaskQueries.ARCHIVE_COLLECTION, true));
+        commands.clear();
+
+        List<Task> deleted = repository.deleteAllByUserId("alice", ids);
+
+        assertEquals(2, deleted.size());
+        assertEquals(List.of("find tasks", "delete tasks", "delete tasks_archive", "find tasks_archive",
+                "delete tasks_archive", "update task_tombstones"), commands);
+        assertEquals(0, collection("tasks").countDocuments() + collection(TaskQueries.ARCHIVE_COLLECTION)
+                .countDocuments());
+        assertEquals(2, collection("task_tombstones").countDocuments());
+    }
+
+    private ObjectId insert(String collection, boolean completed) {
+        ObjectId id = new ObjectId();
+        collection(collection).insertOne(new Document("_id", id).append("userId", "alice").append("title", "task")
+                .append("completed", completed).append("archived", false).append("changeSeq", 1L));
+        return id;
+    }
+
+    private MongoCollection<Document> collection(String name) {
+        return mongoTemplate.getCollection(name);
+    }
+}
@@ -0,0 +1,96 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskCursorTest {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    @Test
+    void positionsRoundTripInEveryOrder() {
+        Task task = task(Instant.ofEpochMilli(1_700_000_000_123L));
+        task.setDueDate(LocalDateTime.of(2024, 5, 1, 9, 30));
+        task.setPriority("high");
+
+        for (TaskSort sort : TaskSort.values()) {
+            TaskCursor cursor = TaskCursor.of(sort, task);
+            assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    void missingCreatedAtRoundTrips() {
+        TaskCursor cursor = TaskCursor.of(TaskSort.CREATED_AT, task(null));
+
+        assertEquals(new TaskCursor(TaskSort.CREATED_AT, null, ID), TaskCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void newestFirstKeepsItsOriginalForm() {
+        String legacy = encoded("1700000000123:" + ID);
+
+        assertEquals(new TaskCursor(TaskSort.CREATED_AT, Instant.ofEpochMilli(1_700_000_000_123L), ID),
+                TaskCursor.decode(legacy));
+        assertEquals(legacy, TaskCursor.decode(legacy).encode());
+    }
+
+    @Test
+    void malformedCursorsAreBadRequests() {
+        assertThrows(BadRequestException.class, () -> TaskCursor.decode("%%%"));
+        assertThrows(BadRequestException.class, () -> TaskCursor.decode(encoded("soon:" + ID)));
+        assertThrows(BadRequestException.class, () -> TaskCursor.decode(encoded("DUE_DATE:tomorrow:" + ID)));
+        assertThrows(BadRequestException.class, () -> TaskCursor.decode(encoded("1700000000123:not-an-id")));
+    }
+
+    @Test
+    void newestFirstPagesContinueIntoTasksWithoutCreatedAt() {
+        Instant createdAt = Instant.ofEpochMilli(1_700_000_000_123L);
+        TaskCursor after = new TaskCursor(TaskSort.CREATED_AT, createdAt, ID);
+
+        List<Object> branches = seekPast(after);
+
+        assertEquals(3, branches.size());
+        assertEquals(new Document("createdAt", new Document("$lt", createdAt)), branches.get(0));
+        assertEquals(new Document("createdAt", createdAt).append("_id", new Document("$lt", new ObjectId(ID))),
+                branches.get(1));
+        assertEquals(new Document("createdAt", null), branches.get(2));
+    }
+
+    @Test
+    void pageAfterATaskWithoutCreatedAtStaysAmongThem() {
+        TaskCursor after = TaskCursor.decode(TaskCursor.of(TaskSort.CREATED_AT, task(null)).encode());
+
+        assertEquals(List.of(new Document("createdAt", null).append("_id", new Document("$lt", new ObjectId(ID)))),
+                seekPast(after));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> seekPast(TaskCursor after) {
+        Document query = TaskQueries.page("alice", TaskFilter.NONE, TaskFields.ALL, after, 20).getQueryObject();
+        return (List<Object>) query.get("$or");
+    }
+
+    private static Task task(Instant createdAt) {
+        Task task = new Task();
+        task.setId(ID);
+        task.setCreatedAt(createdAt);
+        return task;
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
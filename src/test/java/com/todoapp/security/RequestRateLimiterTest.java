@@ -0,0 +1,234 @@
+package com.todoapp.security;
+
+import com.todoapp.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestRateLimiterTest {
+
+    private static final String PROXY = "10.0.0.5";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    void burstUpToCapacityThenRejects() {
+        limiter = limiter(3, 0.001, 100_000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1));
+        }
+        long waitNanos = limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1);
+
+        // One token is 1000s at this rate; the wait is until one more would fit
+        assertTrue(waitNanos > TimeUnit.SECONDS.toNanos(990) && waitNanos <= TimeUnit.SECONDS.toNanos(1000),
+                Long.toString(waitNanos));
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:bob", 1));
+        assertEquals(4.0, decisions("allowed"));
+        assertEquals(1.0, decisions("rejected"));
+    }
+
+    @Test
+    void costsAreChargedTogetherAndCappedAtCapacity() {
+        limiter = limiter(5, 0.001, 100_000);
+
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 4));
+        assertTrue(limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 2) > 0);
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1));
+
+        // More than the bucket holds takes all of it, rather than never being allowed
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:bob", 50));
+        assertTrue(limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:bob", 1) > 0);
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:carol", 0));
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        limiter = limiter(2, 20, 100_000);
+
+        limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 2);
+        long waitNanos = limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1);
+        assertTrue(waitNanos > 0 && waitNanos <= TimeUnit.MILLISECONDS.toNanos(50), Long.toString(waitNanos));
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos + TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1));
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, RequestRateLimiter.retryAfterSeconds(1));
+        assertEquals(1, RequestRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, RequestRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+        assertEquals(1000, RequestRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1000)));
+    }
+
+    @Test
+    void acquireThrowsWithRetryAfter() {
+        limiter = limiter(1, 0.5, 100_000);
+
+        limiter.acquire(RequestRateLimiter.Route.BULK, "user:alice", 1);
+        RateLimitedException e = assertThrows(RateLimitedException.class,
+                () -> limiter.acquire(RequestRateLimiter.Route.BULK, "user:alice", 1));
+
+        assertEquals(2, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() throws InterruptedException {
+        limiter = limiter(1, 1000, 100_000);
+        limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1);
+        limiter.tryAcquire(RequestRateLimiter.Route.LOGIN, "ip:203.0.113.7", 1);
+        assertEquals(1.0, buckets("default"));
+
+        TimeUnit.MILLISECONDS.sleep(5);
+        limiter.sweep();
+
+        assertEquals(0.0, buckets("default"));
+        assertEquals(0.0, buckets("login"));
+    }
+
+    @Test
+    void sweepKeepsBucketsStillRefilling() {
+        limiter = limiter(1, 0.001, 100_000);
+        limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1);
+
+        limiter.sweep();
+
+        assertEquals(1.0, buckets("default"));
+        assertTrue(limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "user:alice", 1) > 0);
+    }
+
+    @Test
+    void clientsBeyondMaxKeysShareTheirStripesBucket() {
+        // One key per stripe; nothing refills, so no bucket can be swept to make room
+        limiter = limiter(1, 0.001, 16);
+        int clients = 40;
+        int allowed = 0;
+        for (int i = 0; i < clients; i++) {
+            if (limiter.tryAcquire(RequestRateLimiter.Route.DEFAULT, "ip:203.0.113." + i, 1) == 0) {
+                allowed++;
+            }
+        }
+
+        double keyed = buckets("default");
+        double overflowed = meterRegistry.get("ratelimit.overflow").tag("route", "default").counter().count();
+        assertTrue(keyed <= 16, Double.toString(keyed));
+        assertEquals(clients - keyed, overflowed);
+        // Each stripe's overflow bucket admits one request between all the clients sharing it
+        assertTrue(allowed <= keyed + 16, Integer.toString(allowed));
+        assertTrue(allowed < clients, Integer.toString(allowed));
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        limiter = new RequestRateLimiter(new MockEnvironment(), meterRegistry);
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+        limiter.init();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(RequestRateLimiter.Route.LOGIN, "ip:203.0.113.7", 1));
+        }
+        assertEquals("203.0.113.7", limiter.clientAddress("203.0.113.7", List.of("198.51.100.1")));
+    }
+
+    @Test
+    void forwardedForIsReadOnlyFromTrustedProxies() {
+        limiter = limiter(1, 0.001, 100_000);
+
+        assertEquals("203.0.113.7", limiter.clientAddress(PROXY, List.of("203.0.113.7")));
+        // Hops the client wrote itself are left of the one the proxy added
+        assertEquals("203.0.113.7", limiter.clientAddress(PROXY, List.of("198.51.100.1, 203.0.113.7")));
+        assertEquals("203.0.113.7", limiter.clientAddress(PROXY, List.of("198.51.100.1", "203.0.113.7, 10.1.2.3")));
+        // All hops are proxies: the first one is the client
+        assertEquals("10.9.9.9", limiter.clientAddress(PROXY, List.of("10.9.9.9, 10.1.2.3")));
+        // Not behind a trusted proxy, or nothing forwarded: the connection's own address
+        assertEquals("198.51.100.1", limiter.clientAddress("198.51.100.1", List.of("203.0.113.7")));
+        assertEquals(PROXY, limiter.clientAddress(PROXY, List.of()));
+        assertEquals(PROXY, limiter.clientAddress(PROXY, null));
+        // Forged hops that are not IP literals are never matched against the proxies
+        assertEquals("proxy.internal", limiter.clientAddress(PROXY, List.of("proxy.internal")));
+    }
+
+    @Test
+    void clientsForwardedByOneProxyGetTheirOwnBuckets() throws Exception {
+        limiter = limiter(1, 0.001, 100_000);
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+
+        assertEquals(200, login(filter, "203.0.113.7").getStatus());
+        assertEquals(200, login(filter, "198.51.100.1").getStatus());
+
+        MockHttpServletResponse rejected = login(filter, "203.0.113.7");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1000", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void withoutTrustedProxiesForwardedForIsIgnored() throws Exception {
+        limiter = limiter(1, 0.001, 100_000, List.of());
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+
+        assertEquals(PROXY, limiter.clientAddress(PROXY, List.of("203.0.113.7")));
+        assertEquals(200, login(filter, "203.0.113.7").getStatus());
+        assertEquals(429, login(filter, "198.51.100.1").getStatus());
+    }
+
+    private MockHttpServletResponse login(RateLimitFilter filter, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+        request.setRemoteAddr(PROXY);
+        request.addHeader("X-Forwarded-For", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private RequestRateLimiter limiter(long capacity, double refillPerSecond, int maxKeys) {
+        return limiter(capacity, refillPerSecond, maxKeys, List.of("10.0.0.0/8", "127.0.0.1"));
+    }
+
+    private RequestRateLimiter limiter(long capacity, double refillPerSecond, int maxKeys, List<String> proxies) {
+        MockEnvironment environment = new MockEnvironment();
+        for (String route : List.of("default", "login", "bulk")) {
+            environment.setProperty("todos.rate-limit." + route + ".capacity", Long.toString(capacity));
+            environment.setProperty("todos.rate-limit." + route + ".refill-per-second",
+                    Double.toString(refillPerSecond));
+        }
+        RequestRateLimiter created = new RequestRateLimiter(environment, meterRegistry);
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(created, "idleSweepSeconds", 3600L);
+        ReflectionTestUtils.setField(created, "trustedProxies", proxies);
+        created.init();
+        return created;
+    }
+
+    private double decisions(String outcome) {
+        return meterRegistry.get("ratelimit.requests").tag("route", "default").tag("outcome", outcome).counter()
+                .count();
+    }
+
+    private double buckets(String route) {
+        return meterRegistry.get("ratelimit.buckets").tag("route", route).gauge().value();
+    }
+}
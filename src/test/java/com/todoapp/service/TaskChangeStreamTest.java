@@ -0,0 +1,181 @@
+package com.todoapp.service;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.todoapp.dto.TaskEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskChangeStreamTest {
+
+    private static final String TASK_ID = new ObjectId().toHexString();
+
+    private final List<TaskEvent> delivered = new ArrayList<>();
+    private MappingMongoConverter converter;
+    private TaskEventBus bus;
+    private TaskListCache listCache;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        bus = new TaskEventBus(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "replaySize", 16);
+        ReflectionTestUtils.setField(bus, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(bus, "idleChannelMinutes", 5L);
+        bus.init();
+        listCache = new TaskListCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(listCache, "maxTasks", 1000L);
+        ReflectionTestUtils.setField(listCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(listCache, "maxUsers", 100L);
+        ReflectionTestUtils.setField(listCache, "settleMs", 0L);
+        listCache.init();
+        bus.subscribe("alice", null, new TaskEventBus.Subscriber() {
+            @Override
+            public boolean offer(TaskEventBus.Delivery delivery) {
+                delivered.add(delivery.event());
+                return true;
+            }
+
+            @Override
+            public int remainingCapacity() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void insertIsACreate() {
+        deliver(change("insert", "tasks", task(false, false), null));
+
+        assertEquals(List.of("created"), types());
+        assertEquals(TASK_ID, delivered.get(0).getTaskId());
+        assertEquals("write tests", delivered.get(0).getTask().getTitle());
+    }
+
+    @Test
+    void flagOnlyUpdatesAreTogglesAndArchives() {
+        deliver(change("update", "tasks", task(true, false), updated("completed", "changeSeq", "updatedAt")));
+        deliver(change("update", "tasks", task(true, true), updated("archived", "changeSeq", "updatedAt")));
+        deliver(change("update", "tasks", task(true, true), updated("title", "completed", "changeSeq")));
+        deliver(change("replace", "tasks", task(true, true), null));
+
+        assertEquals(List.of("toggled", "archived", "updated", "updated"), types());
+        assertTrue(delivered.get(0).getTask().isCompleted());
+    }
+
+    @Test
+    void tombstoneIsADeleteForItsOwner() {
+        Document tombstone = new Document("_id", TASK_ID).append("userId", "alice").append("changeSeq", 7L);
+
+        deliver(change("insert", "task_tombstones", tombstone, null));
+
+        assertEquals(List.of("deleted"), types());
+        assertEquals(TASK_ID, delivered.get(0).getTaskId());
+        assertNull(delivered.get(0).getTask());
+    }
+
+    @Test
+    void changesRaiseTheOwnersListVersion() {
+        assertEquals(Long.toString(7, 36), listCache.version("alice", () -> 7L));
+
+        deliver(change("insert", "tasks", task(false, false), null));
+        assertEquals(Long.toString(42, 36), listCache.version("alice", () -> 0L));
+
+        Document tombstone = new Document("_id", TASK_ID).append("userId", "alice").append("changeSeq", 50L);
+        deliver(change("insert", "task_tombstones", tombstone, null));
+        assertEquals(Long.toString(50, 36), listCache.version("alice", () -> 0L));
+    }
+
+    @Test
+    void changesWithoutTheDocumentAreSkipped() {
+        deliver(change("update", "tasks", null, updated("title")));
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    void pipelineWatchesTaskWritesAndTombstonesOnly() {
+        BsonDocument match = TaskChangeStream.pipeline("tasks", "task_tombstones").get(0)
+                .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+
+        String json = match.toJson();
+        assertTrue(json.contains("\"ns.coll\": {\"$in\": [\"tasks\", \"task_tombstones\"]}"), json);
+        assertTrue(json.contains("\"operationType\": {\"$in\": [\"insert\", \"update\", \"replace\"]}"), json);
+    }
+
+    private void deliver(ChangeStreamDocument<Document> change) {
+        TaskChangeStream.deliver(bus, listCache, change, "task_tombstones", converter);
+    }
+
+    private List<String> types() {
+        return delivered.stream().map(TaskEvent::getType).toList();
+    }
+
+    private static Document task(boolean completed, boolean archived) {
+        return new Document("_id", new ObjectId(TASK_ID))
+                .append("userId", "alice")
+                .append("title", "write tests")
+                .append("completed", completed)
+                .append("archived", archived)
+                .append("changeSeq", 42L);
+    }
+
+    private static Document updated(String... fields) {
+        Document updatedFields = new Document();
+        for (String field : fields) {
+            updatedFields.append(field, true);
+        }
+        return new Document("updatedFields", updatedFields).append("removedFields", List.of());
+    }
+
+    // Decoded with the driver's own codec from the shape the server sends
+    private static ChangeStreamDocument<Document> change(String operationType, String collection, Document fullDocument,
+                                                         Document updateDescription) {
+        Document event = new Document("_id", new Document("_data", "826"))
+                .append("operationType", operationType)
+                .append("ns", new Document("db", "todoapp").append("coll", collection))
+                .append("documentKey", new Document("_id", new ObjectId(TASK_ID)));
+        if (fullDocument != null) {
+            event.append("fullDocument", fullDocument);
+        }
+        if (updateDescription != null) {
+            event.append("updateDescription", updateDescription);
+        }
+        BsonDocument bson = event.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        return ChangeStreamDocument.createCodec(Document.class, MongoClientSettings.getDefaultCodecRegistry())
+                .decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,198 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventBusTest {
+
+    private static final String USER = "alice";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new TaskEventBus(meterRegistry);
+        ReflectionTestUtils.setField(bus, "replaySize", 3);
+        ReflectionTestUtils.setField(bus, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(bus, "idleChannelMinutes", 5L);
+        bus.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void newSubscriberGetsOnlyLaterEvents() {
+        subscribe(null, 10);
+        publishUpdates(2);
+        Recorder subscriber = subscribe(null, 10);
+
+        publishUpdates(1);
+
+        assertEquals(List.of("updated"), subscriber.types());
+        assertTrue(subscriber.lastId().endsWith("-3"), subscriber.lastId());
+    }
+
+    @Test
+    void reconnectReplaysWhatWasMissed() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(1);
+        bus.unsubscribe(USER, first);
+        publishUpdates(2);
+
+        Recorder resumed = subscribe(first.lastId(), 10);
+
+        assertEquals(List.of("updated", "updated"), resumed.types());
+        assertEquals(idAt(first.lastId(), 3), resumed.lastId());
+    }
+
+    @Test
+    void reconnectAtTheLatestEventReplaysNothing() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(2);
+
+        Recorder resumed = subscribe(first.lastId(), 10);
+
+        assertTrue(resumed.deliveries.isEmpty());
+    }
+
+    @Test
+    void reconnectJustInsideTheReplayWindowResumes() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(1);
+        publishUpdates(3);
+
+        // Events 2 to 4 are kept: resuming after 1 needs nothing that was dropped
+        Recorder resumed = subscribe(first.deliveries.get(0).id(), 10);
+
+        assertEquals(List.of("updated", "updated", "updated"), resumed.types());
+    }
+
+    @Test
+    void reconnectOlderThanTheReplayWindowResets() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(5);
+
+        Recorder resumed = subscribe(first.deliveries.get(0).id(), 10);
+
+        assertEquals(List.of("reset"), resumed.types());
+        assertEquals(first.lastId(), resumed.lastId());
+        assertEquals(1.0, meterRegistry.counter("tasks.events.resets").count());
+    }
+
+    @Test
+    void idsFromAnotherBusOrMalformedReset() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(1);
+        String busPrefix = first.lastId().substring(0, first.lastId().lastIndexOf('-') + 1);
+
+        assertEquals(List.of("reset"), subscribe("otherbus-1", 10).types());
+        assertEquals(List.of("reset"), subscribe(busPrefix + "x", 10).types());
+        assertEquals(List.of("reset"), subscribe(busPrefix + "9", 10).types());
+    }
+
+    @Test
+    void replayLargerThanTheBufferResets() {
+        Recorder first = subscribe(null, 10);
+        publishUpdates(3);
+
+        Recorder resumed = subscribe(first.deliveries.get(0).id(), 2);
+
+        assertEquals(List.of("reset"), resumed.types());
+    }
+
+    @Test
+    void fullSubscriberIsDroppedAndClosed() {
+        Recorder slow = subscribe(null, 1);
+        Recorder fast = subscribe(null, 10);
+
+        publishUpdates(2);
+
+        assertTrue(slow.closed);
+        assertEquals(1, slow.deliveries.size());
+        assertEquals(2, fast.deliveries.size());
+        assertEquals(1.0, meterRegistry.counter("tasks.events.dropped").count());
+    }
+
+    @Test
+    void writersEventsAreIgnoredWhileTheChangeStreamRuns() {
+        Recorder subscriber = subscribe(null, 10);
+
+        bus.changeStreamRunning(true);
+        bus.publish(USER, new TaskEvent("updated", "t1", null));
+        bus.deliver(USER, new TaskEvent("toggled", "t1", null));
+        bus.changeStreamRunning(false);
+        bus.publish(USER, new TaskEvent("deleted", "t1", null));
+
+        assertEquals(List.of("toggled", "deleted"), subscriber.types());
+        assertFalse(subscriber.closed);
+    }
+
+    private void publishUpdates(int count) {
+        for (int i = 0; i < count; i++) {
+            bus.publish(USER, new TaskEvent("updated", "t" + i, null));
+        }
+    }
+
+    private Recorder subscribe(String lastEventId, int capacity) {
+        Recorder recorder = new Recorder(capacity);
+        bus.subscribe(USER, lastEventId, recorder);
+        return recorder;
+    }
+
+    private static String idAt(String id, long seq) {
+        return id.substring(0, id.lastIndexOf('-') + 1) + seq;
+    }
+
+    private static final class Recorder implements TaskEventBus.Subscriber {
+
+        private final int capacity;
+        private final List<TaskEventBus.Delivery> deliveries = new ArrayList<>();
+        private boolean closed;
+
+        Recorder(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(TaskEventBus.Delivery delivery) {
+            if (deliveries.size() >= capacity) {
+                return false;
+            }
+            deliveries.add(delivery);
+            return true;
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return capacity - deliveries.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> types() {
+            return deliveries.stream().map(delivery -> delivery.event().getType()).toList();
+        }
+
+        String lastId() {
+            return deliveries.get(deliveries.size() - 1).id();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+// Runs in its own surefire execution with a small -Xmx (see pom.xml): buffering the export would fail with OOM
+@ExtendWith(MockitoExtension.class)
+class TaskExportConstantMemoryTest {
+
+    private static final int TASK_COUNT = 500_000;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @InjectMocks
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskService, "exportBatchSize", 1000);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void exportsHalfAMillionTasksWithFlatHeap() throws Exception {
+        Stream<Task> cursor = LongStream.range(0, TASK_COUNT).mapToObj(TaskExportConstantMemoryTest::task);
+        when(taskRepository.streamByUserId("alice", 1000)).thenReturn(cursor);
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        taskService.exportTasks(out);
+
+        assertEquals(TASK_COUNT, out.lines);
+    }
+
+    private static Task task(long i) {
+        Task task = new Task(String.format("%024x", i), "alice", "Task " + i,
+                "Description of task " + i, i % 2 == 0, Instant.now());
+        task.setTags(List.of("work", "tag-" + (i % 10)));
+        task.setDueDate(LocalDateTime.now().plusDays(i % 30));
+        return task;
+    }
+
+    // Discards the bytes so only the export pipeline itself can hold memory
+    private static class LineCountingOutputStream extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
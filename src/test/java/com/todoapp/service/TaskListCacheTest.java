@@ -0,0 +1,127 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.ChangeSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskListCacheTest {
+
+    private static final String USER = "alice";
+    private static final long SETTLE_MS = 200;
+    private static final long OLD = ChangeSequence.firstAt(Instant.now().minus(Duration.ofHours(1)));
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private TaskListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskListCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxTasks", 1000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxUsers", 100L);
+        ReflectionTestUtils.setField(cache, "settleMs", SETTLE_MS);
+        cache.init();
+    }
+
+    @Test
+    void versionIsLoadedOnceThenServedFromMemory() {
+        assertEquals(tag(OLD), version(OLD));
+        assertEquals(tag(OLD), version(OLD + 1));
+        assertEquals(tag(OLD), cache.version(USER, Mono.fromSupplier(() -> OLD + 2)).block());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void writesHereDropTheVersionAndItsViews() {
+        version(OLD);
+        view(tag(OLD), "first");
+
+        cache.invalidate(USER);
+
+        assertEquals(tag(OLD + 1), version(OLD + 1));
+        assertEquals(2, loads.get());
+        assertEquals("second", view(tag(OLD), "second"));
+    }
+
+    @Test
+    void deliveredChangesRaiseTheVersionWithoutALoad() throws InterruptedException {
+        version(OLD);
+
+        cache.changed(USER, OLD + 5);
+        cache.changed(USER, OLD + 5);
+
+        assertEquals(tag(OLD + 5) + "~", version(0));
+        TimeUnit.MILLISECONDS.sleep(SETTLE_MS + 50);
+        assertEquals(tag(OLD + 5), version(0));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changesToVersionsNotKeptAreLeftToTheLoad() {
+        cache.changed(USER, OLD);
+
+        assertEquals(tag(OLD + 1), version(OLD + 1));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aRecentChangeIsTaggedUntilItSettles() throws InterruptedException {
+        long recent = ChangeSequence.next();
+
+        assertEquals(tag(recent) + "~", version(recent));
+        assertEquals("unsettled", view(tag(recent) + "~", "unsettled"));
+        TimeUnit.MILLISECONDS.sleep(SETTLE_MS + 50);
+
+        assertEquals(tag(recent), version(recent));
+        assertEquals("settled", view(tag(recent), "settled"));
+    }
+
+    @Test
+    void aChangeDeliveredOutOfOrderReopensTheWindowAndDropsViews() {
+        version(OLD + 5);
+        view(tag(OLD + 5), "before");
+
+        cache.changed(USER, OLD + 3);
+
+        assertEquals(tag(OLD + 5) + "~", version(0));
+        assertEquals("after", view(tag(OLD + 5), "after"));
+    }
+
+    @Test
+    void aLoadThatRacedAWriteIsNotKept() {
+        assertEquals(tag(OLD), cache.version(USER, () -> {
+            loads.incrementAndGet();
+            cache.invalidate(USER);
+            return OLD;
+        }));
+
+        assertEquals(tag(OLD + 1), version(OLD + 1));
+        assertEquals(2, loads.get());
+    }
+
+    private String version(long latestChange) {
+        return cache.version(USER, () -> {
+            loads.incrementAndGet();
+            return latestChange;
+        });
+    }
+
+    private String view(String version, String loaded) {
+        return cache.get(USER, version, "all", () -> loaded, value -> 1).value();
+    }
+
+    private static String tag(long changeSeq) {
+        return Long.toString(changeSeq, Character.MAX_RADIX);
+    }
+}
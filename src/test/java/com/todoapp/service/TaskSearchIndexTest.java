@@ -0,0 +1,157 @@
+package com.todoapp.service;
+
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskSearchIndexTest {
+
+    private static final String USER = "alice";
+
+    private final List<Task> stored = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxPostings", 1_000_000L);
+        ReflectionTestUtils.setField(index, "ttlMinutes", 10L);
+        index.init();
+    }
+
+    @Test
+    void titleOutranksTagOutranksDescription() {
+        stored.add(task(1, "call the bank", null, "report"));
+        stored.add(task(2, "call mum", List.of("report"), null));
+        stored.add(task(3, "report", null, null));
+
+        assertEquals(List.of(id(3), id(2), id(1)), search("report"));
+    }
+
+    @Test
+    void exactMatchOutranksPrefixMatch() {
+        stored.add(task(1, "reports", null, null));
+        stored.add(task(2, "report", null, null));
+        // A prefix match in the title (3) still beats an exact one in the description (2)
+        stored.add(task(3, "groceries", null, "report"));
+
+        assertEquals(List.of(id(2), id(1), id(3)), search("report"));
+    }
+
+    @Test
+    void everyQueryWordMustMatchAndScoresAdd() {
+        stored.add(task(1, "quarterly report", null, null));
+        stored.add(task(2, "quarterly review", null, "report"));
+        stored.add(task(3, "annual report", null, null));
+
+        assertEquals(List.of(id(1), id(2)), search("quart rep"));
+        assertEquals(List.of(), search("quarterly budget"));
+    }
+
+    @Test
+    void aWordCountsOnlyItsBestMatchPerTask() {
+        // "rep" is a prefix of report, reply and repair; only the best of them, a title prefix match (3), counts
+        stored.add(task(1, "report reply", null, "repair"));
+        stored.add(task(2, "rep", null, null));
+
+        assertEquals(List.of(id(2), id(1)), search("rep"));
+    }
+
+    @Test
+    void oneLetterWordsOnlyMatchExactly() {
+        stored.add(task(1, "a plan", null, null));
+        stored.add(task(2, "apples", null, null));
+
+        assertEquals(List.of(id(1)), search("a"));
+        assertEquals(List.of(id(2)), search("ap"));
+    }
+
+    @Test
+    void tiesGoToTheNewerTask() {
+        stored.add(task(1, "report", null, null));
+        stored.add(task(3, "report", null, null));
+        stored.add(task(2, "report", null, null));
+
+        assertEquals(List.of(id(3), id(2), id(1)), search("report"));
+        assertEquals(List.of(id(3), id(2)), index.search(USER, "report", 2, loader()));
+    }
+
+    @Test
+    void putReindexesAndRemoveDrops() {
+        stored.add(task(1, "write report", List.of("work"), null));
+        stored.add(task(2, "write letter", null, null));
+        assertEquals(List.of(id(2), id(1)), search("write"));
+
+        index.put(USER, task(1, "read book", null, null));
+        index.put(USER, task(3, "write essay", null, null));
+        index.remove(USER, id(2));
+
+        assertEquals(List.of(id(3)), search("write"));
+        assertEquals(List.of(id(1)), search("book"));
+        assertEquals(List.of(), search("work"));
+        index.remove(USER, id(9));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void writesBeforeTheFirstSearchAreLeftToTheLoad() {
+        index.put(USER, task(1, "stale title", null, null));
+        stored.add(task(1, "fresh title", null, null));
+
+        assertEquals(List.of(), search("stale"));
+        assertEquals(List.of(id(1)), search("fresh"));
+    }
+
+    @Test
+    void queriesAreNormalised() {
+        stored.add(task(1, "Café-Opening, 2024!", List.of("Ops"), null));
+
+        assertEquals(List.of(id(1)), search("  CAFÉ  opening ops 2024 "));
+        assertEquals(List.of("a", "b"), TaskSearchIndex.words("a, b; A"));
+    }
+
+    @Test
+    void emptyAndOverlongQueriesAreBadRequests() {
+        assertThrows(BadRequestException.class, () -> search(" ,;"));
+        assertThrows(BadRequestException.class, () -> search("a b c d e f g h i"));
+        assertEquals(0, loads.get());
+    }
+
+    private List<String> search(String query) {
+        return index.search(USER, query, 10, loader());
+    }
+
+    private Supplier<Stream<Task>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return List.copyOf(stored).stream();
+        };
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+
+    private static Task task(int n, String title, List<String> tags, String description) {
+        Task task = new Task();
+        task.setId(id(n));
+        task.setUserId(USER);
+        task.setTitle(title);
+        task.setTags(tags);
+        task.setDescription(description);
+        return task;
+    }
+}